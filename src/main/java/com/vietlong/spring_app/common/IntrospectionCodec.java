@@ -0,0 +1,142 @@
+package com.vietlong.spring_app.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vietlong.spring_app.dto.response.IntrospectTokenResponse;
+
+public class IntrospectionCodec {
+
+    public static final String MEDIA_TYPE = "application/x-token-introspection";
+    public static final int VERSION = 1;
+    public static final int MAX_TOKENS = 100;
+    public static final int FLAG_VALID = 1;
+
+    private IntrospectionCodec() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static byte[] encodeRequest(List<String> tokens) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(VERSION);
+            out.writeShort(tokens.size());
+            for (String token : tokens) {
+                byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static List<String> decodeRequest(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            readVersion(in);
+            int count = in.readUnsignedShort();
+            if (count == 0 || count > MAX_TOKENS) {
+                throw new IllegalArgumentException("Số lượng token phải từ 1 đến " + MAX_TOKENS);
+            }
+            List<String> tokens = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[in.readUnsignedShort()];
+                in.readFully(bytes);
+                if (bytes.length == 0) {
+                    throw new IllegalArgumentException("Token không được để trống");
+                }
+                tokens.add(new String(bytes, StandardCharsets.US_ASCII));
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Dữ liệu introspection thừa sau token cuối cùng");
+            }
+            return tokens;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Dữ liệu introspection không hợp lệ");
+        }
+    }
+
+    public static byte[] encodeResponse(List<IntrospectTokenResponse> responses) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 + responses.size() * 96);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(VERSION);
+            out.writeShort(responses.size());
+            for (IntrospectTokenResponse response : responses) {
+                if (!Boolean.TRUE.equals(response.getIsValid())) {
+                    out.writeByte(0);
+                    continue;
+                }
+                out.writeByte(FLAG_VALID);
+                out.writeLong(toEpochSecond(response.getIssuedAt()));
+                out.writeLong(toEpochSecond(response.getExpiresAt()));
+                out.writeUTF(nullToEmpty(response.getScope()));
+                out.writeUTF(nullToEmpty(response.getUsername()));
+                out.writeUTF(nullToEmpty(response.getJti()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static List<IntrospectTokenResponse> decodeResponse(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            readVersion(in);
+            int count = in.readUnsignedShort();
+            List<IntrospectTokenResponse> responses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                if ((in.readUnsignedByte() & FLAG_VALID) == 0) {
+                    responses.add(IntrospectTokenResponse.builder().isValid(false).build());
+                    continue;
+                }
+                responses.add(IntrospectTokenResponse.builder()
+                        .isValid(true)
+                        .issuedAt(fromEpochSecond(in.readLong()))
+                        .expiresAt(fromEpochSecond(in.readLong()))
+                        .scope(emptyToNull(in.readUTF()))
+                        .username(emptyToNull(in.readUTF()))
+                        .jti(emptyToNull(in.readUTF()))
+                        .clientId(JwtConstants.AUDIENCE)
+                        .build());
+            }
+            return responses;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Dữ liệu introspection không hợp lệ");
+        }
+    }
+
+    private static void readVersion(DataInputStream in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Phiên bản introspection không được hỗ trợ: " + version);
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? 0L : dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static LocalDateTime fromEpochSecond(long epochSecond) {
+        return epochSecond == 0L ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -8,8 +8,10 @@ public class JwtConstants {
     public static final String SCOPE_CLAIM = "scope";
     public static final String EMAIL_CLAIM = "email";
     public static final String USER_ID_CLAIM = "userId";
+    public static final String TOKEN_GENERATION_CLAIM = "gen";
 
     public static final String ALGORITHM = "HS512";
+    public static final String MAC_ALGORITHM = "HmacSHA512";
 
     private JwtConstants() {
         throw new UnsupportedOperationException("Utility class");
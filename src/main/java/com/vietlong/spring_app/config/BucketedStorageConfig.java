@@ -0,0 +1,75 @@
+package com.vietlong.spring_app.config;
+
+import java.util.Locale;
+import java.util.Set;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.jwt.storage.layout", havingValue = "bucketed")
+public class BucketedStorageConfig {
+
+    private static final Set<String> BUCKETED_TABLES = Set.of("blacklisted_tokens", "active_tokens");
+
+    @Bean
+    public HibernatePropertiesCustomizer bucketedStorageSchemaFilter() {
+        return properties -> properties.put(AvailableSettings.HBM2DDL_FILTER_PROVIDER, new ViewSchemaFilterProvider());
+    }
+
+    private static final class ViewSchemaFilter implements SchemaFilter {
+
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table table) {
+            return !BUCKETED_TABLES.contains(table.getName().toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return true;
+        }
+    }
+
+    private static final class ViewSchemaFilterProvider implements SchemaFilterProvider {
+
+        private final SchemaFilter filter = new ViewSchemaFilter();
+
+        @Override
+        public SchemaFilter getCreateFilter() {
+            return filter;
+        }
+
+        @Override
+        public SchemaFilter getDropFilter() {
+            return filter;
+        }
+
+        @Override
+        public SchemaFilter getTruncatorFilter() {
+            return filter;
+        }
+
+        @Override
+        public SchemaFilter getMigrateFilter() {
+            return filter;
+        }
+
+        @Override
+        public SchemaFilter getValidateFilter() {
+            return filter;
+        }
+    }
+}
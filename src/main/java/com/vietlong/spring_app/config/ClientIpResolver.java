@@ -0,0 +1,101 @@
+package com.vietlong.spring_app.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@Component
+public class ClientIpResolver {
+
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9a-fA-F:.]+");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientIpResolver(@Value("${spring.client-ip.trusted-proxies}") String trustedProxies) {
+        this.trustedProxies = parse(trustedProxies);
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        List<String> hops = forwardedHops(request);
+        String client = remoteAddr;
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i);
+            if (!IP_LITERAL.matcher(hop).matches()) {
+                break;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    public boolean isTrusted(String address) {
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher matcher : trustedProxies) {
+            if (matcher.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> forwardedHops(HttpServletRequest request) {
+        List<String> hops = new ArrayList<>();
+        Enumeration<String> headers = request.getHeaders(FORWARDED_FOR_HEADER);
+        if (headers == null) {
+            return hops;
+        }
+        for (String header : Collections.list(headers)) {
+            for (String hop : header.split(",")) {
+                String trimmed = hop.trim();
+                if (!trimmed.isEmpty()) {
+                    hops.add(trimmed);
+                }
+            }
+        }
+        return hops;
+    }
+
+    private static List<IpAddressMatcher> parse(String trustedProxies) {
+        List<IpAddressMatcher> matchers = new ArrayList<>();
+        if (trustedProxies == null || trustedProxies.isBlank()) {
+            return matchers;
+        }
+        for (String entry : trustedProxies.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String address = trimmed.contains("/") ? trimmed.substring(0, trimmed.indexOf('/')) : trimmed;
+            if (!IP_LITERAL.matcher(address).matches()) {
+                throw new IllegalStateException("Trusted proxy entry must be an IP address or CIDR range: " + trimmed);
+            }
+            try {
+                matchers.add(new IpAddressMatcher(trimmed));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Trusted proxy entry must be an IP address or CIDR range: " + trimmed,
+                        e);
+            }
+        }
+        return matchers;
+    }
+}
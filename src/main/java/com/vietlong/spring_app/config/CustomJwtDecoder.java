@@ -1,64 +1,167 @@
 package com.vietlong.spring_app.config;
 
-import javax.crypto.spec.SecretKeySpec;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
 import org.springframework.stereotype.Component;
 
+import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.vietlong.spring_app.common.JwtConstants;
+import com.vietlong.spring_app.config.JwtKeySet.KeyMaterial;
+import com.vietlong.spring_app.service.RevocationWatermarkService;
 import com.vietlong.spring_app.service.TokenBlacklistService;
-
-import jakarta.annotation.PostConstruct;
+import com.vietlong.spring_app.service.TokenGenerationService;
 
 @Component
 public class CustomJwtDecoder implements JwtDecoder {
 
-    private final JwtConfig jwtConfig;
+    private final JwtKeySet jwtKeySet;
     private final TokenBlacklistService tokenBlacklistService;
-    private NimbusJwtDecoder nimbusJwtDecoder = null;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenGenerationService tokenGenerationService;
+    private final RevocationWatermarkService revocationWatermarkService;
+    private final Converter<Map<String, Object>, Map<String, Object>> claimSetConverter = MappedJwtClaimSetConverter
+            .withDefaults(Collections.emptyMap());
+    private final OAuth2TokenValidator<Jwt> jwtValidator = new DelegatingOAuth2TokenValidator<>(
+            JwtValidators.createDefaultWithIssuer(JwtConstants.ISSUER),
+            new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                    aud -> aud != null && aud.contains(JwtConstants.AUDIENCE)));
 
-    public CustomJwtDecoder(JwtConfig jwtConfig, TokenBlacklistService tokenBlacklistService) {
-        this.jwtConfig = jwtConfig;
+    public CustomJwtDecoder(JwtKeySet jwtKeySet, TokenBlacklistService tokenBlacklistService,
+            VerifiedTokenCache verifiedTokenCache, TokenGenerationService tokenGenerationService,
+            RevocationWatermarkService revocationWatermarkService) {
+        this.jwtKeySet = jwtKeySet;
         this.tokenBlacklistService = tokenBlacklistService;
-    }
-
-    @PostConstruct
-    private void initializeDecoder() {
-        SecretKeySpec secretKeySpec = new SecretKeySpec(jwtConfig.getSignerKey().getBytes(), JwtConstants.ALGORITHM);
-        nimbusJwtDecoder = NimbusJwtDecoder.withSecretKey(secretKeySpec)
-                .macAlgorithm(MacAlgorithm.HS512)
-                .build();
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenGenerationService = tokenGenerationService;
+        this.revocationWatermarkService = revocationWatermarkService;
     }
 
     @Override
     public Jwt decode(String token) throws JwtException {
+        Jwt jwt = verifiedTokenCache.get(token, this::verify);
+
+        String jti = jwt.getId();
+        if (revocationWatermarkService.isRevoked(jwt.getIssuedAt())) {
+            verifiedTokenCache.evictByJti(jti);
+            throw new BadJwtException("Token đã bị thu hồi");
+        }
+        if (isBlacklisted(jwt)) {
+            verifiedTokenCache.evictByJti(jti);
+            throw new BadJwtException("Token đã bị logout");
+        }
+        if (isSuperseded(jwt)) {
+            verifiedTokenCache.evictByJti(jti);
+            throw new BadJwtException("Token đã bị thu hồi");
+        }
+
+        return jwt;
+    }
+
+    private Jwt verify(String token) {
+        SignedJWT signedJWT;
+        JWTClaimsSet claimsSet;
         try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-            JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
-
-            String jti = claimsSet.getJWTID();
-            if (jti != null) {
-                try {
-                    if (tokenBlacklistService.isTokenBlacklisted(jti)) {
-                        throw new JwtException("Token đã bị logout");
-                    }
-                } catch (Exception e) {
-                    throw new JwtException("Lỗi kiểm tra blacklist: " + e.getMessage());
-                }
-            }
+            signedJWT = SignedJWT.parse(token);
+            claimsSet = signedJWT.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new BadJwtException("Token không hợp lệ", e);
+        }
+
+        if (!JWSAlgorithm.HS512.equals(signedJWT.getHeader().getAlgorithm())) {
+            throw new BadJwtException("Thuật toán ký token không được hỗ trợ");
+        }
+        KeyMaterial key = jwtKeySet.find(signedJWT.getHeader().getKeyID());
+        if (key == null) {
+            throw new BadJwtException("Không tìm thấy khóa ký token");
+        }
+        if (!key.verify(signedJWT.getSigningInput(), signedJWT.getSignature().decode())) {
+            throw new BadJwtException("Token signature không hợp lệ");
+        }
+
+        return validate(token, signedJWT, claimsSet);
+    }
+
+    public Jwt validate(String token, SignedJWT signedJWT, JWTClaimsSet claimsSet) {
+        Jwt jwt = createJwt(token, signedJWT, claimsSet);
+        validateJwt(jwt);
 
+        return jwt;
+    }
+
+    private Jwt createJwt(String token, SignedJWT signedJWT, JWTClaimsSet claimsSet) {
+        try {
+            Map<String, Object> headers = new LinkedHashMap<>(signedJWT.getHeader().toJSONObject());
+            Map<String, Object> claims = claimSetConverter.convert(claimsSet.getClaims());
+            return Jwt.withTokenValue(token)
+                    .headers(h -> h.putAll(headers))
+                    .claims(c -> c.putAll(claims))
+                    .build();
         } catch (RuntimeException e) {
-            throw e;
+            throw new BadJwtException("Token không hợp lệ: " + e.getMessage(), e);
+        }
+    }
+
+    private void validateJwt(Jwt jwt) {
+        OAuth2TokenValidatorResult result = jwtValidator.validate(jwt);
+        if (result.hasErrors()) {
+            Collection<OAuth2Error> errors = result.getErrors();
+            String description = errors.stream()
+                    .map(OAuth2Error::getDescription)
+                    .filter(d -> d != null && !d.isEmpty())
+                    .findFirst()
+                    .orElse("Token không hợp lệ");
+            throw new JwtValidationException(description, errors);
+        }
+    }
+
+    private boolean isBlacklisted(Jwt jwt) {
+        String jti = jwt.getId();
+        if (jti == null) {
+            return false;
+        }
+
+        Date expirationTime = jwt.getExpiresAt() != null ? Date.from(jwt.getExpiresAt()) : null;
+        try {
+            return tokenBlacklistService.isTokenBlacklisted(jti, expirationTime);
         } catch (Exception e) {
-            throw new JwtException("Token không hợp lệ");
+            throw new JwtException("Lỗi kiểm tra blacklist: " + e.getMessage(), e);
         }
+    }
 
-        return nimbusJwtDecoder.decode(token);
+    private boolean isSuperseded(Jwt jwt) {
+        String userId = jwt.getClaimAsString(JwtConstants.USER_ID_CLAIM);
+        if (userId == null) {
+            return false;
+        }
+
+        Object claim = jwt.getClaim(JwtConstants.TOKEN_GENERATION_CLAIM);
+        long generation = claim instanceof Number number ? number.longValue() : 0L;
+        try {
+            return !tokenGenerationService.isCurrent(userId, generation);
+        } catch (Exception e) {
+            throw new JwtException("Lỗi kiểm tra token generation: " + e.getMessage(), e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.vietlong.spring_app.config;
 
+import java.nio.charset.StandardCharsets;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
@@ -31,13 +33,142 @@ public class JwtConfig {
     @Value("${spring.jwt.cleanup.active-tokens-interval}")
     private long activeTokensCleanupInterval;
 
+    @Value("${spring.jwt.cleanup.purge.initial-chunk-size}")
+    private int purgeInitialChunkSize;
+
+    @Value("${spring.jwt.cleanup.purge.min-chunk-size}")
+    private int purgeMinChunkSize;
+
+    @Value("${spring.jwt.cleanup.purge.max-chunk-size}")
+    private int purgeMaxChunkSize;
+
+    @Value("${spring.jwt.cleanup.purge.target-latency}")
+    private long purgeTargetLatency;
+
+    @Value("${spring.jwt.cleanup.purge.pause-factor}")
+    private double purgePauseFactor;
+
+    @Value("${spring.jwt.cleanup.purge.max-duration}")
+    private long purgeMaxDuration;
+
+    @Value("${spring.jwt.cleanup.purge.lease-duration}")
+    private long purgeLeaseDuration;
+
+    @Value("${spring.jwt.cache.verified-tokens-max-size}")
+    private long verifiedTokenCacheMaxSize;
+
+    @Value("${spring.jwt.cache.user-generations-max-size}")
+    private long userGenerationCacheMaxSize;
+
+    @Value("${spring.jwt.cache.user-generations-ttl}")
+    private long userGenerationCacheTtl;
+
+    @Value("${spring.jwt.cache.credentials-max-size}")
+    private long credentialCacheMaxSize;
+
+    @Value("${spring.jwt.cache.credentials-ttl}")
+    private long credentialCacheTtl;
+
+    @Value("${spring.jwt.cache.introspection-max-size}")
+    private long introspectionCacheMaxSize;
+
+    @Value("${spring.jwt.cache.introspection-max-ttl}")
+    private long introspectionCacheMaxTtl;
+
+    @Value("${spring.jwt.cache.introspection-negative-max-size}")
+    private long introspectionNegativeCacheMaxSize;
+
+    @Value("${spring.jwt.cache.introspection-negative-ttl}")
+    private long introspectionNegativeCacheTtl;
+
+    @Value("${spring.jwt.blacklist.replica.max-lag}")
+    private long blacklistReplicaMaxLag;
+
+    @Value("${spring.jwt.blacklist.replica.expire-interval}")
+    private long blacklistReplicaExpireInterval;
+
+    @Value("${spring.jwt.blacklist.breaker.timeout}")
+    private long blacklistBreakerTimeout;
+
+    @Value("${spring.jwt.blacklist.breaker.failure-threshold}")
+    private int blacklistBreakerFailureThreshold;
+
+    @Value("${spring.jwt.blacklist.breaker.open-duration}")
+    private long blacklistBreakerOpenDuration;
+
+    @Value("${spring.jwt.blacklist.breaker.max-concurrent-calls}")
+    private int blacklistBreakerMaxConcurrentCalls;
+
+    @Value("${spring.jwt.blacklist.degraded.max-staleness}")
+    private long blacklistDegradedMaxStaleness;
+
+    @Value("${spring.jwt.blacklist.degraded.fail-open}")
+    private boolean blacklistDegradedFailOpen;
+
+    @Value("${spring.jwt.blacklist.snapshot.enabled}")
+    private boolean blacklistSnapshotEnabled;
+
+    @Value("${spring.jwt.blacklist.snapshot.path}")
+    private String blacklistSnapshotPath;
+
+    @Value("${spring.jwt.blacklist.snapshot.interval}")
+    private long blacklistSnapshotInterval;
+
+    @Value("${spring.jwt.revocation.bus}")
+    private String revocationBus;
+
+    @Value("${spring.jwt.revocation.poll-interval}")
+    private long revocationPollInterval;
+
+    @Value("${spring.jwt.revocation.batch-size}")
+    private int revocationBatchSize;
+
+    @Value("${spring.jwt.revocation.gap-grace}")
+    private long revocationGapGrace;
+
+    @Value("${spring.jwt.revocation.watermark-refresh-interval}")
+    private long revocationWatermarkRefreshInterval;
+
+    @Value("${spring.jwt.keys.refresh-interval}")
+    private long signingKeysRefreshInterval;
+
+    @Value("${spring.jwt.write-behind.enabled}")
+    private boolean writeBehindEnabled;
+
+    @Value("${spring.jwt.write-behind.queue-capacity}")
+    private int writeBehindQueueCapacity;
+
+    @Value("${spring.jwt.write-behind.batch-size}")
+    private int writeBehindBatchSize;
+
+    @Value("${spring.jwt.write-behind.flush-interval}")
+    private long writeBehindFlushInterval;
+
+    @Value("${spring.jwt.write-behind.shutdown-timeout}")
+    private long writeBehindShutdownTimeout;
+
+    @Value("${spring.jwt.write-behind.max-attempts}")
+    private int writeBehindMaxAttempts;
+
+    @Value("${spring.jwt.write-behind.max-retry-backoff}")
+    private long writeBehindMaxRetryBackoff;
+
+    @Value("${spring.jwt.write-behind.recovery-interval}")
+    private long writeBehindRecoveryInterval;
+
+    @Value("${spring.jwt.storage.layout}")
+    private String storageLayout;
+
+    @Value("${spring.jwt.storage.bucket-granularity}")
+    private String storageBucketGranularity;
+
     @PostConstruct
     public void validateConfiguration() {
         if (signerKey == null || signerKey.trim().isEmpty()) {
             throw new IllegalStateException("JWT signer key cannot be null or empty");
         }
-        if (signerKey.length() < 32) {
-            throw new IllegalStateException("JWT signer key must be at least 32 characters long");
+        if (signerKey.getBytes(StandardCharsets.UTF_8).length < 64) {
+            throw new IllegalStateException("JWT signer key must be at least 64 bytes long for HS512");
         }
         if (expirationHours <= 0) {
             throw new IllegalStateException("JWT expiration hours must be positive");
@@ -57,6 +188,121 @@ public class JwtConfig {
         if (orphanedCleanupCron == null || orphanedCleanupCron.trim().isEmpty()) {
             throw new IllegalStateException("Orphaned cleanup cron expression cannot be null or empty");
         }
+        if (purgeMinChunkSize <= 0 || purgeMinChunkSize > purgeMaxChunkSize) {
+            throw new IllegalStateException("Purge min chunk size must be positive and not exceed the max chunk size");
+        }
+        if (purgeInitialChunkSize < purgeMinChunkSize || purgeInitialChunkSize > purgeMaxChunkSize) {
+            throw new IllegalStateException("Purge initial chunk size must be between the min and max chunk sizes");
+        }
+        if (purgeTargetLatency <= 0) {
+            throw new IllegalStateException("Purge target latency must be positive");
+        }
+        if (purgePauseFactor < 0) {
+            throw new IllegalStateException("Purge pause factor cannot be negative");
+        }
+        if (purgeMaxDuration <= 0) {
+            throw new IllegalStateException("Purge max duration must be positive");
+        }
+        if (purgeLeaseDuration <= 0) {
+            throw new IllegalStateException("Purge lease duration must be positive");
+        }
+        if (verifiedTokenCacheMaxSize <= 0) {
+            throw new IllegalStateException("Verified token cache max size must be positive");
+        }
+        if (userGenerationCacheMaxSize <= 0) {
+            throw new IllegalStateException("User generation cache max size must be positive");
+        }
+        if (userGenerationCacheTtl <= 0) {
+            throw new IllegalStateException("User generation cache TTL must be positive");
+        }
+        if (credentialCacheMaxSize <= 0) {
+            throw new IllegalStateException("Credential cache max size must be positive");
+        }
+        if (credentialCacheTtl <= 0) {
+            throw new IllegalStateException("Credential cache TTL must be positive");
+        }
+        if (introspectionCacheMaxSize <= 0 || introspectionNegativeCacheMaxSize <= 0) {
+            throw new IllegalStateException("Introspection cache max sizes must be positive");
+        }
+        if (introspectionCacheMaxTtl <= 0 || introspectionNegativeCacheTtl <= 0) {
+            throw new IllegalStateException("Introspection cache TTLs must be positive");
+        }
+        if (blacklistReplicaExpireInterval <= 0) {
+            throw new IllegalStateException("Blacklist replica expire interval must be positive");
+        }
+        if (blacklistBreakerTimeout <= 0) {
+            throw new IllegalStateException("Blacklist breaker timeout must be positive");
+        }
+        if (blacklistBreakerFailureThreshold <= 0) {
+            throw new IllegalStateException("Blacklist breaker failure threshold must be positive");
+        }
+        if (blacklistBreakerOpenDuration <= 0) {
+            throw new IllegalStateException("Blacklist breaker open duration must be positive");
+        }
+        if (blacklistBreakerMaxConcurrentCalls <= 0) {
+            throw new IllegalStateException("Blacklist breaker max concurrent calls must be positive");
+        }
+        if (blacklistDegradedMaxStaleness < 0) {
+            throw new IllegalStateException("Blacklist degraded max staleness must not be negative");
+        }
+        if (blacklistSnapshotEnabled && (blacklistSnapshotPath == null || blacklistSnapshotPath.trim().isEmpty())) {
+            throw new IllegalStateException("Blacklist snapshot path cannot be null or empty");
+        }
+        if (blacklistSnapshotInterval <= 0) {
+            throw new IllegalStateException("Blacklist snapshot interval must be positive");
+        }
+        if (!"database".equals(revocationBus) && !"local".equals(revocationBus)) {
+            throw new IllegalStateException("Revocation bus must be either 'database' or 'local'");
+        }
+        if (revocationPollInterval <= 0) {
+            throw new IllegalStateException("Revocation poll interval must be positive");
+        }
+        if (blacklistReplicaMaxLag < revocationPollInterval) {
+            throw new IllegalStateException("Blacklist replica max lag must not be shorter than the poll interval");
+        }
+        if (revocationBatchSize <= 0) {
+            throw new IllegalStateException("Revocation batch size must be positive");
+        }
+        if (revocationGapGrace <= 0) {
+            throw new IllegalStateException("Revocation gap grace must be positive");
+        }
+        if (revocationWatermarkRefreshInterval <= 0) {
+            throw new IllegalStateException("Revocation watermark refresh interval must be positive");
+        }
+        if (signingKeysRefreshInterval <= 0) {
+            throw new IllegalStateException("Signing keys refresh interval must be positive");
+        }
+        if (writeBehindQueueCapacity <= 0) {
+            throw new IllegalStateException("Write-behind queue capacity must be positive");
+        }
+        if (writeBehindBatchSize <= 0 || writeBehindBatchSize > writeBehindQueueCapacity) {
+            throw new IllegalStateException("Write-behind batch size must be positive and not exceed the queue capacity");
+        }
+        if (writeBehindFlushInterval <= 0) {
+            throw new IllegalStateException("Write-behind flush interval must be positive");
+        }
+        if (writeBehindShutdownTimeout <= 0) {
+            throw new IllegalStateException("Write-behind shutdown timeout must be positive");
+        }
+        if (writeBehindMaxAttempts <= 0) {
+            throw new IllegalStateException("Write-behind max attempts must be positive");
+        }
+        if (writeBehindMaxRetryBackoff < writeBehindFlushInterval) {
+            throw new IllegalStateException("Write-behind max retry backoff must not be shorter than the flush interval");
+        }
+        if (writeBehindRecoveryInterval <= 0) {
+            throw new IllegalStateException("Write-behind recovery interval must be positive");
+        }
+        if (writeBehindEnabled && !"database".equals(revocationBus)) {
+            throw new IllegalStateException(
+                    "Write-behind requires the database revocation bus, which persists revocations before they are acknowledged");
+        }
+        if (!"table".equals(storageLayout) && !"bucketed".equals(storageLayout)) {
+            throw new IllegalStateException("Token storage layout must be either 'table' or 'bucketed'");
+        }
+        if (!"hourly".equals(storageBucketGranularity) && !"daily".equals(storageBucketGranularity)) {
+            throw new IllegalStateException("Token storage bucket granularity must be either 'hourly' or 'daily'");
+        }
     }
 
 }
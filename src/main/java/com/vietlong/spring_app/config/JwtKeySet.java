@@ -0,0 +1,361 @@
+package com.vietlong.spring_app.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.SignedJWT;
+import com.vietlong.spring_app.common.JwtConstants;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.model.RevocationType;
+import com.vietlong.spring_app.model.SigningKey;
+import com.vietlong.spring_app.model.SigningKeyStatus;
+import com.vietlong.spring_app.repository.SigningKeyRepository;
+import com.vietlong.spring_app.service.RevocationEventBus;
+import com.vietlong.spring_app.service.RevocationListener;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class JwtKeySet implements RevocationListener {
+
+    public static final String BOOTSTRAP_KID = "bootstrap";
+    private static final int SECRET_BYTES = 64;
+    private static final int MIN_SECRET_BYTES = 64;
+    private static final String WRAPPED_PREFIX = "v1:";
+    private static final String WRAP_ALGORITHM = "AES/GCM/NoPadding";
+    private static final String WRAP_KEY_ALGORITHM = "HmacSHA256";
+    private static final String WRAP_KEY_LABEL = "jwt-signing-key-wrap";
+    private static final int WRAP_IV_BYTES = 12;
+    private static final int WRAP_TAG_BITS = 128;
+
+    private final JwtConfig jwtConfig;
+    private final SigningKeyRepository signingKeyRepository;
+    private final RevocationEventBus revocationEventBus;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final KeyMaterial bootstrapKey;
+    private final SecretKeySpec wrappingKey;
+
+    private volatile Snapshot snapshot;
+
+    public JwtKeySet(JwtConfig jwtConfig, SigningKeyRepository signingKeyRepository,
+            RevocationEventBus revocationEventBus) {
+        this.jwtConfig = jwtConfig;
+        this.signingKeyRepository = signingKeyRepository;
+        this.revocationEventBus = revocationEventBus;
+        byte[] signerKey = jwtConfig.getSignerKey().getBytes(StandardCharsets.UTF_8);
+        this.bootstrapKey = new KeyMaterial(BOOTSTRAP_KID, signerKey, SigningKeyStatus.ACTIVE, null, null);
+        this.wrappingKey = deriveWrappingKey(signerKey);
+        this.snapshot = new Snapshot(bootstrapKey, Map.of(BOOTSTRAP_KID, bootstrapKey));
+    }
+
+    @PostConstruct
+    private void initialize() {
+        revocationEventBus.subscribe(this);
+        reload();
+    }
+
+    public KeyMaterial current() {
+        return snapshot.current;
+    }
+
+    public KeyMaterial find(String kid) {
+        return snapshot.keys.get(kid == null ? BOOTSTRAP_KID : kid);
+    }
+
+    public boolean verify(SignedJWT signedJWT) {
+        KeyMaterial key = find(signedJWT.getHeader().getKeyID());
+        return key != null && key.verify(signedJWT.getSigningInput(), signedJWT.getSignature().decode());
+    }
+
+    @Transactional
+    public KeyInfo rotate() {
+        LocalDateTime now = LocalDateTime.now();
+        byte[] secret = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(secret);
+        String kid = UUID.randomUUID().toString();
+        SigningKey signingKey = new SigningKey(kid, wrap(kid, secret));
+        signingKeyRepository.save(signingKey);
+        signingKeyRepository.flush();
+
+        revocationEventBus.publish(RevocationEvent.keyRotation(now.plusHours(jwtConfig.getExpirationHours())));
+        log.info("Đã tạo signer key mới {} ở trạng thái PENDING, sẽ kích hoạt sau {} ms", kid,
+                jwtConfig.getSigningKeysRefreshInterval());
+        return new KeyInfo(kid, SigningKeyStatus.PENDING, signingKey.getCreatedAt(), null);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.jwt.keys.refresh-interval}",
+            initialDelayString = "${spring.jwt.keys.refresh-interval}")
+    @Transactional
+    public void promotePendingKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime eligibleBefore = now.minus(Duration.ofMillis(jwtConfig.getSigningKeysRefreshInterval()));
+        SigningKey candidate = null;
+        for (SigningKey signingKey : signingKeyRepository.findByStatus(SigningKeyStatus.PENDING)) {
+            if (signingKey.getCreatedAt() == null || signingKey.getCreatedAt().isAfter(eligibleBefore)) {
+                continue;
+            }
+            if (candidate == null || signingKey.getCreatedAt().isAfter(candidate.getCreatedAt())) {
+                candidate = signingKey;
+            }
+        }
+        if (candidate == null) {
+            return;
+        }
+        if (signingKeyRepository.promote(candidate.getKid(), SigningKeyStatus.PENDING, SigningKeyStatus.ACTIVE,
+                now) == 0) {
+            return;
+        }
+        signingKeyRepository.retireSuperseded(candidate.getKid(), candidate.getCreatedAt(), SigningKeyStatus.ACTIVE,
+                SigningKeyStatus.PENDING, SigningKeyStatus.RETIRED, now);
+
+        revocationEventBus.publish(RevocationEvent.keyRotation(now.plusHours(jwtConfig.getExpirationHours())));
+        log.info("Đã kích hoạt signer key {}", candidate.getKid());
+    }
+
+    @Scheduled(fixedDelayString = "${spring.jwt.keys.refresh-interval}",
+            initialDelayString = "${spring.jwt.keys.refresh-interval}")
+    public void reload() {
+        try {
+            List<SigningKey> signingKeys = signingKeyRepository.findAllByOrderByCreatedAtAsc();
+            LocalDateTime acceptedSince = LocalDateTime.now().minusHours(jwtConfig.getExpirationHours());
+
+            Map<String, KeyMaterial> keys = new HashMap<>();
+            KeyMaterial current = bootstrapKey;
+            boolean pending = false;
+            if (signingKeys.isEmpty()) {
+                keys.put(BOOTSTRAP_KID, bootstrapKey);
+            } else {
+                LocalDateTime bootstrapRetiredAt = null;
+                for (SigningKey signingKey : signingKeys) {
+                    if (signingKey.getStatus() != SigningKeyStatus.PENDING) {
+                        bootstrapRetiredAt = signingKey.getActivatedAt() != null ? signingKey.getActivatedAt()
+                                : signingKey.getCreatedAt();
+                        break;
+                    }
+                }
+                if (bootstrapRetiredAt == null || bootstrapRetiredAt.isAfter(acceptedSince)) {
+                    keys.put(BOOTSTRAP_KID, bootstrapKey.retired(bootstrapRetiredAt));
+                }
+                for (SigningKey signingKey : signingKeys) {
+                    if (signingKey.getStatus() == SigningKeyStatus.RETIRED
+                            && signingKey.getRetiredAt() != null && signingKey.getRetiredAt().isBefore(acceptedSince)) {
+                        continue;
+                    }
+                    KeyMaterial existing = snapshot.keys.get(signingKey.getKid());
+                    KeyMaterial key;
+                    try {
+                        key = existing != null && existing.status == signingKey.getStatus() ? existing
+                                : new KeyMaterial(signingKey.getKid(),
+                                        unwrap(signingKey.getKid(), signingKey.getSecret()), signingKey.getStatus(),
+                                        signingKey.getCreatedAt(), signingKey.getRetiredAt());
+                    } catch (IllegalStateException e) {
+                        log.error("Bỏ qua signer key {}: {}", signingKey.getKid(), e.getMessage());
+                        continue;
+                    }
+                    keys.put(key.kid, key);
+                    if (key.status == SigningKeyStatus.ACTIVE) {
+                        current = key;
+                    } else if (key.status == SigningKeyStatus.PENDING) {
+                        pending = true;
+                    }
+                }
+                if (current == bootstrapKey) {
+                    if (pending) {
+                        log.debug("Signer key PENDING chưa được kích hoạt, tiếp tục dùng bootstrap key");
+                    } else {
+                        log.warn("Không có signer key ACTIVE hoặc PENDING trong database, "
+                                + "tiếp tục dùng bootstrap key");
+                    }
+                    keys.put(BOOTSTRAP_KID, bootstrapKey);
+                }
+            }
+            snapshot = new Snapshot(current, Collections.unmodifiableMap(keys));
+        } catch (Exception e) {
+            log.error("Lỗi khi nạp signer keys: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onRevocation(RevocationEvent event) {
+        if (event.getType() != RevocationType.KEY_ROTATION) {
+            return;
+        }
+        reload();
+    }
+
+    public List<KeyInfo> getKeys() {
+        Snapshot current = snapshot;
+        List<KeyInfo> keys = new ArrayList<>();
+        for (KeyMaterial key : current.keys.values()) {
+            keys.add(KeyInfo.of(key));
+        }
+        return keys;
+    }
+
+    private String wrap(String kid, byte[] secret) {
+        try {
+            byte[] iv = new byte[WRAP_IV_BYTES];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(WRAP_ALGORITHM);
+            cipher.init(Cipher.ENCRYPT_MODE, wrappingKey, new GCMParameterSpec(WRAP_TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(secret);
+            byte[] wrapped = new byte[iv.length + ciphertext.length];
+            System.arraycopy(iv, 0, wrapped, 0, iv.length);
+            System.arraycopy(ciphertext, 0, wrapped, iv.length, ciphertext.length);
+            return WRAPPED_PREFIX + Base64.getEncoder().encodeToString(wrapped);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Không thể mã hóa signer key " + kid, e);
+        }
+    }
+
+    private byte[] unwrap(String kid, String stored) {
+        if (!stored.startsWith(WRAPPED_PREFIX)) {
+            return Base64.getDecoder().decode(stored);
+        }
+        try {
+            byte[] wrapped = Base64.getDecoder().decode(stored.substring(WRAPPED_PREFIX.length()));
+            Cipher cipher = Cipher.getInstance(WRAP_ALGORITHM);
+            cipher.init(Cipher.DECRYPT_MODE, wrappingKey,
+                    new GCMParameterSpec(WRAP_TAG_BITS, wrapped, 0, WRAP_IV_BYTES));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(wrapped, WRAP_IV_BYTES, wrapped.length - WRAP_IV_BYTES);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Không thể giải mã signer key " + kid, e);
+        }
+    }
+
+    private static SecretKeySpec deriveWrappingKey(byte[] signerKey) {
+        try {
+            Mac mac = Mac.getInstance(WRAP_KEY_ALGORITHM);
+            mac.init(new SecretKeySpec(signerKey, WRAP_KEY_ALGORITHM));
+            return new SecretKeySpec(mac.doFinal(WRAP_KEY_LABEL.getBytes(StandardCharsets.UTF_8)), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Không thể khởi tạo khóa mã hóa signer key", e);
+        }
+    }
+
+    private static final class Snapshot {
+        private final KeyMaterial current;
+        private final Map<String, KeyMaterial> keys;
+
+        private Snapshot(KeyMaterial current, Map<String, KeyMaterial> keys) {
+            this.current = current;
+            this.keys = keys;
+        }
+    }
+
+    public static final class KeyMaterial {
+        private final String kid;
+        private final byte[] secret;
+        private final SigningKeyStatus status;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime retiredAt;
+        private final String encodedHeader;
+        private final ThreadLocal<Mac> threadLocalMac;
+
+        private KeyMaterial(String kid, byte[] secret, SigningKeyStatus status, LocalDateTime createdAt,
+                LocalDateTime retiredAt) {
+            if (secret.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException("Signer key " + kid + " ngắn hơn " + MIN_SECRET_BYTES + " bytes");
+            }
+            this.kid = kid;
+            this.secret = secret;
+            this.status = status;
+            this.createdAt = createdAt;
+            this.retiredAt = retiredAt;
+            this.encodedHeader = new JWSHeader.Builder(JWSAlgorithm.HS512).keyID(kid).build().toBase64URL()
+                    .toString();
+            SecretKeySpec secretKeySpec = new SecretKeySpec(secret, JwtConstants.MAC_ALGORITHM);
+            this.threadLocalMac = ThreadLocal.withInitial(() -> createMac(secretKeySpec));
+        }
+
+        private KeyMaterial retired(LocalDateTime retiredAt) {
+            return new KeyMaterial(kid, secret, SigningKeyStatus.RETIRED, createdAt, retiredAt);
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public String getEncodedHeader() {
+            return encodedHeader;
+        }
+
+        public byte[] sign(byte[] signingInput) {
+            return threadLocalMac.get().doFinal(signingInput);
+        }
+
+        public boolean verify(byte[] signingInput, byte[] signature) {
+            return MessageDigest.isEqual(sign(signingInput), signature);
+        }
+
+        private static Mac createMac(SecretKeySpec secretKeySpec) {
+            try {
+                Mac mac = Mac.getInstance(JwtConstants.MAC_ALGORITHM);
+                mac.init(secretKeySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Không thể khởi tạo " + JwtConstants.MAC_ALGORITHM, e);
+            }
+        }
+    }
+
+    public static class KeyInfo {
+        private final String kid;
+        private final SigningKeyStatus status;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime retiredAt;
+
+        public KeyInfo(String kid, SigningKeyStatus status, LocalDateTime createdAt, LocalDateTime retiredAt) {
+            this.kid = kid;
+            this.status = status;
+            this.createdAt = createdAt;
+            this.retiredAt = retiredAt;
+        }
+
+        private static KeyInfo of(KeyMaterial key) {
+            return new KeyInfo(key.kid, key.status, key.createdAt, key.retiredAt);
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public SigningKeyStatus getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getRetiredAt() {
+            return retiredAt;
+        }
+    }
+}
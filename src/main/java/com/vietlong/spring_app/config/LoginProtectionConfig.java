@@ -0,0 +1,50 @@
+package com.vietlong.spring_app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+
+@Getter
+@Configuration
+public class LoginProtectionConfig {
+
+    @Value("${spring.login-protection.enabled}")
+    private boolean enabled;
+
+    @Value("${spring.login-protection.account-threshold}")
+    private int accountThreshold;
+
+    @Value("${spring.login-protection.ip-threshold}")
+    private int ipThreshold;
+
+    @Value("${spring.login-protection.decay-interval}")
+    private long decayInterval;
+
+    @Value("${spring.login-protection.sketch-width}")
+    private int sketchWidth;
+
+    @Value("${spring.login-protection.heavy-hitter-capacity}")
+    private int heavyHitterCapacity;
+
+    @PostConstruct
+    public void validateConfiguration() {
+        if (accountThreshold <= 0) {
+            throw new IllegalStateException("Login protection account threshold must be positive");
+        }
+        if (ipThreshold <= 0) {
+            throw new IllegalStateException("Login protection IP threshold must be positive");
+        }
+        if (decayInterval <= 0) {
+            throw new IllegalStateException("Login protection decay interval must be positive");
+        }
+        if (sketchWidth < 1024 || sketchWidth > (1 << 24)) {
+            throw new IllegalStateException("Login protection sketch width must be between 1024 and 16777216");
+        }
+        if (heavyHitterCapacity < 100 || heavyHitterCapacity > 1_000_000) {
+            throw new IllegalStateException("Login protection heavy hitter capacity must be between 100 and 1000000");
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.vietlong.spring_app.config;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class PasswordCostCalibrator {
+
+    private static final int MAX_COST = 31;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private final PasswordHashingConfig passwordHashingConfig;
+
+    private int cost;
+
+    public PasswordCostCalibrator(PasswordHashingConfig passwordHashingConfig) {
+        this.passwordHashingConfig = passwordHashingConfig;
+    }
+
+    @PostConstruct
+    private void calibrate() {
+        if (passwordHashingConfig.getCost() > 0) {
+            cost = passwordHashingConfig.getCost();
+            log.info("Sử dụng BCrypt cost cố định: {}", cost);
+            return;
+        }
+
+        int baseCost = passwordHashingConfig.getMinCost();
+        String salt = BCrypt.gensalt(baseCost);
+        BCrypt.hashpw(SAMPLE_PASSWORD, salt);
+
+        long totalNanos = 0L;
+        for (int i = 0; i < SAMPLES; i++) {
+            long startedAt = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, salt);
+            totalNanos += System.nanoTime() - startedAt;
+        }
+        double baseMillis = Math.max(totalNanos / (double) SAMPLES / 1_000_000d, 0.001d);
+
+        int extraRounds = (int) Math.floor(Math.log(passwordHashingConfig.getTargetLatency() / baseMillis) / Math.log(2));
+        cost = Math.min(MAX_COST, baseCost + Math.max(0, extraRounds));
+        log.info("BCrypt cost {} mất {} ms, chọn cost {} cho mục tiêu {} ms", baseCost,
+                String.format("%.1f", baseMillis), cost, passwordHashingConfig.getTargetLatency());
+    }
+
+    public int getCost() {
+        return cost;
+    }
+}
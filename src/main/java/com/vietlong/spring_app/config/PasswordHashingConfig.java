@@ -0,0 +1,59 @@
+package com.vietlong.spring_app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+
+@Getter
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${spring.password-hashing.threads}")
+    private int threads;
+
+    @Value("${spring.password-hashing.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${spring.password-hashing.timeout}")
+    private long timeout;
+
+    @Value("${spring.password-hashing.cost}")
+    private int cost;
+
+    @Value("${spring.password-hashing.min-cost}")
+    private int minCost;
+
+    @Value("${spring.password-hashing.target-latency}")
+    private long targetLatency;
+
+    @Value("${spring.password-hashing.rehash-tolerance}")
+    private int rehashTolerance;
+
+    @PostConstruct
+    public void validateConfiguration() {
+        if (threads <= 0) {
+            throw new IllegalStateException("Password hashing threads must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalStateException("Password hashing queue capacity must be positive");
+        }
+        if (timeout <= 0) {
+            throw new IllegalStateException("Password hashing timeout must be positive");
+        }
+        if (cost != 0 && (cost < 4 || cost > 31)) {
+            throw new IllegalStateException("Password hashing cost must be 0 (auto) or between 4 and 31");
+        }
+        if (minCost < 4 || minCost > 31) {
+            throw new IllegalStateException("Password hashing min cost must be between 4 and 31");
+        }
+        if (targetLatency <= 0) {
+            throw new IllegalStateException("Password hashing target latency must be positive");
+        }
+        if (rehashTolerance < 0) {
+            throw new IllegalStateException("Password hashing rehash tolerance cannot be negative");
+        }
+    }
+
+}
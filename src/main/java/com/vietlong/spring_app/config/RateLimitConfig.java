@@ -0,0 +1,63 @@
+package com.vietlong.spring_app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+
+@Getter
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${spring.rate-limit.enabled}")
+    private boolean enabled;
+
+    @Value("${spring.rate-limit.max-buckets}")
+    private long maxBuckets;
+
+    @Value("${spring.rate-limit.idle-timeout}")
+    private long idleTimeout;
+
+    @Value("${spring.rate-limit.login.capacity}")
+    private int loginCapacity;
+
+    @Value("${spring.rate-limit.login.refill-per-minute}")
+    private int loginRefillPerMinute;
+
+    @Value("${spring.rate-limit.register.capacity}")
+    private int registerCapacity;
+
+    @Value("${spring.rate-limit.register.refill-per-minute}")
+    private int registerRefillPerMinute;
+
+    @Value("${spring.rate-limit.introspect.capacity}")
+    private int introspectCapacity;
+
+    @Value("${spring.rate-limit.introspect.refill-per-minute}")
+    private int introspectRefillPerMinute;
+
+    @Value("${spring.rate-limit.introspect-batch.capacity}")
+    private int introspectBatchCapacity;
+
+    @Value("${spring.rate-limit.introspect-batch.refill-per-minute}")
+    private int introspectBatchRefillPerMinute;
+
+    @PostConstruct
+    public void validateConfiguration() {
+        if (maxBuckets <= 0) {
+            throw new IllegalStateException("Rate limit max buckets must be positive");
+        }
+        if (idleTimeout <= 0) {
+            throw new IllegalStateException("Rate limit idle timeout must be positive");
+        }
+        if (loginCapacity <= 0 || registerCapacity <= 0 || introspectCapacity <= 0 || introspectBatchCapacity <= 0) {
+            throw new IllegalStateException("Rate limit capacities must be positive");
+        }
+        if (loginRefillPerMinute <= 0 || registerRefillPerMinute <= 0 || introspectRefillPerMinute <= 0
+                || introspectBatchRefillPerMinute <= 0) {
+            throw new IllegalStateException("Rate limit refill rates must be positive");
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.vietlong.spring_app.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vietlong.spring_app.common.ApiResponse;
+import com.vietlong.spring_app.exception.ErrorCode;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final ClientIpResolver clientIpResolver;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Limit> limits;
+    private final Cache<String, AtomicLong> buckets;
+    private final long originNanos = System.nanoTime();
+
+    public RateLimitFilter(RateLimitConfig rateLimitConfig, ClientIpResolver clientIpResolver,
+            ObjectMapper objectMapper) {
+        this.clientIpResolver = clientIpResolver;
+        this.objectMapper = objectMapper;
+        this.limits = Map.of(
+                "/api/auth/login",
+                new Limit("login", rateLimitConfig.getLoginCapacity(), rateLimitConfig.getLoginRefillPerMinute()),
+                "/api/auth/register",
+                new Limit("register", rateLimitConfig.getRegisterCapacity(),
+                        rateLimitConfig.getRegisterRefillPerMinute()),
+                "/api/auth/introspect",
+                new Limit("introspect", rateLimitConfig.getIntrospectCapacity(),
+                        rateLimitConfig.getIntrospectRefillPerMinute()),
+                "/api/auth/introspect/batch",
+                new Limit("introspect-batch", rateLimitConfig.getIntrospectBatchCapacity(),
+                        rateLimitConfig.getIntrospectBatchRefillPerMinute()),
+                "/api/auth/introspect/binary",
+                new Limit("introspect-binary", rateLimitConfig.getIntrospectBatchCapacity(),
+                        rateLimitConfig.getIntrospectBatchRefillPerMinute()));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitConfig.getMaxBuckets())
+                .expireAfterAccess(Duration.ofMillis(rateLimitConfig.getIdleTimeout()))
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limits.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Limit limit = limits.get(request.getServletPath());
+        String clientIp = clientIpResolver.resolve(request);
+        AtomicLong bucket = buckets.get(limit.name + "|" + clientIp, key -> new AtomicLong());
+        long now = System.nanoTime() - originNanos;
+
+        while (true) {
+            long theoreticalArrival = bucket.get();
+            long nextArrival = Math.max(theoreticalArrival, now) + limit.emissionIntervalNanos;
+            long allowedAt = nextArrival - limit.burstToleranceNanos;
+
+            if (now < allowedAt) {
+                writeHeaders(response, limit, 0, theoreticalArrival - now);
+                reject(request, response, clientIp, allowedAt - now);
+                return;
+            }
+            if (bucket.compareAndSet(theoreticalArrival, nextArrival)) {
+                writeHeaders(response, limit, (now - allowedAt) / limit.emissionIntervalNanos, nextArrival - now);
+                break;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void writeHeaders(HttpServletResponse response, Limit limit, long remaining, long resetNanos) {
+        response.setHeader(LIMIT_HEADER, Integer.toString(limit.capacity));
+        response.setHeader(REMAINING_HEADER, Long.toString(remaining));
+        response.setHeader(RESET_HEADER, Long.toString(toSecondsCeil(resetNanos)));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String clientIp,
+            long retryAfterNanos) throws IOException {
+        log.warn("Vượt giới hạn request tại {} từ {}", request.getServletPath(), clientIp);
+        ApiResponse<Object> apiResponse = ApiResponse.error(
+                ErrorCode.TOO_MANY_REQUESTS.getMessage(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                ErrorCode.TOO_MANY_REQUESTS.getCode(),
+                request);
+
+        response.setHeader(RETRY_AFTER_HEADER, Long.toString(toSecondsCeil(retryAfterNanos)));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), apiResponse);
+    }
+
+    private static long toSecondsCeil(long nanos) {
+        return Math.max(0L, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static final class Limit {
+        private final String name;
+        private final int capacity;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+
+        private Limit(String name, int capacity, int refillPerMinute) {
+            this.name = name;
+            this.capacity = capacity;
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+            this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        }
+    }
+}
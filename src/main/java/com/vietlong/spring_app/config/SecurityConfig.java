@@ -2,18 +2,24 @@ package com.vietlong.spring_app.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import java.util.List;
 
 @Configuration
@@ -21,14 +27,23 @@ import java.util.List;
 public class SecurityConfig {
 
     private final CustomJwtDecoder customJwtDecoder;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RateLimitConfig rateLimitConfig;
+    private final ClientIpResolver clientIpResolver;
+    private final ObjectMapper objectMapper;
 
-    public SecurityConfig(CustomJwtDecoder customJwtDecoder) {
+    public SecurityConfig(CustomJwtDecoder customJwtDecoder, VerifiedTokenCache verifiedTokenCache,
+            RateLimitConfig rateLimitConfig, ClientIpResolver clientIpResolver, ObjectMapper objectMapper) {
         this.customJwtDecoder = customJwtDecoder;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.rateLimitConfig = rateLimitConfig;
+        this.clientIpResolver = clientIpResolver;
+        this.objectMapper = objectMapper;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordCostCalibrator passwordCostCalibrator) {
+        return new BCryptPasswordEncoder(passwordCostCalibrator.getCost());
     }
 
     private String[] getPublicEndpoints() {
@@ -36,6 +51,8 @@ public class SecurityConfig {
                 "/api/auth/login",
                 "/api/auth/register",
                 "/api/auth/introspect",
+                "/api/auth/introspect/batch",
+                "/api/auth/introspect/binary",
         };
     }
 
@@ -60,6 +77,11 @@ public class SecurityConfig {
                         .requestMatchers(getPublicEndpoints()).permitAll()
                         .anyRequest().authenticated());
 
+        if (rateLimitConfig.isEnabled()) {
+            httpSecurity.addFilterBefore(new RateLimitFilter(rateLimitConfig, clientIpResolver, objectMapper),
+                    BearerTokenAuthenticationFilter.class);
+        }
+
         httpSecurity.oauth2ResourceServer(oauth2 -> oauth2
                 .jwt(jwt -> jwt.decoder(customJwtDecoder)
                         .jwtAuthenticationConverter(jwtAuthenticationConverter())));
@@ -68,14 +90,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public Converter<Jwt, AbstractAuthenticationToken> jwtAuthenticationConverter() {
         JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
         jwtGrantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
 
-        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
-
-        return jwtAuthenticationConverter;
+        return jwt -> new JwtAuthenticationToken(jwt,
+                verifiedTokenCache.getAuthorities(jwt, jwtGrantedAuthoritiesConverter::convert),
+                jwt.getSubject());
     }
 
     @Bean
@@ -99,7 +120,11 @@ public class SecurityConfig {
                 "Access-Control-Request-Headers"));
         config.setExposedHeaders(List.of(
                 "Access-Control-Allow-Origin",
-                "Access-Control-Allow-Credentials"));
+                "Access-Control-Allow-Credentials",
+                RateLimitFilter.LIMIT_HEADER,
+                RateLimitFilter.REMAINING_HEADER,
+                RateLimitFilter.RESET_HEADER,
+                RateLimitFilter.RETRY_AFTER_HEADER));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
 
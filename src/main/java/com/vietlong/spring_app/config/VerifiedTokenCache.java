@@ -0,0 +1,187 @@
+package com.vietlong.spring_app.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vietlong.spring_app.common.TokenDigests;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.service.RevocationEventBus;
+import com.vietlong.spring_app.service.RevocationListener;
+
+@Component
+public class VerifiedTokenCache implements RevocationListener {
+
+    private final Cache<String, Entry> cache;
+    private final ConcurrentMap<String, String> digestsByJti = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(JwtConfig jwtConfig, RevocationEventBus revocationEventBus) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getVerifiedTokenCacheMaxSize())
+                .expireAfter(new ExpiresAtExpiry())
+                .removalListener((String digest, Entry entry, RemovalCause cause) -> {
+                    if (entry != null && entry.getJti() != null) {
+                        digestsByJti.remove(entry.getJti(), digest);
+                    }
+                })
+                .recordStats()
+                .build();
+        revocationEventBus.subscribe(this);
+    }
+
+    public Jwt get(String token, Function<String, Jwt> verifier) {
+        String digest = TokenDigests.sha256(token);
+        Entry entry = cache.get(digest, key -> new Entry(verifier.apply(token)));
+        if (entry.getJti() != null) {
+            digestsByJti.putIfAbsent(entry.getJti(), digest);
+        }
+        return entry.getJwt();
+    }
+
+    public Collection<GrantedAuthority> getAuthorities(Jwt jwt,
+            Function<Jwt, Collection<GrantedAuthority>> authoritiesConverter) {
+        Entry entry = findEntry(jwt);
+        if (entry == null) {
+            return authoritiesConverter.apply(jwt);
+        }
+
+        Collection<GrantedAuthority> authorities = entry.authorities;
+        if (authorities == null) {
+            authorities = authoritiesConverter.apply(jwt);
+            entry.authorities = authorities;
+        }
+        return authorities;
+    }
+
+    @Override
+    public void onRevocation(RevocationEvent event) {
+        evictByJti(event.getJti());
+    }
+
+    public void evictByJti(String jti) {
+        if (jti == null) {
+            return;
+        }
+        String digest = digestsByJti.remove(jti);
+        if (digest != null) {
+            cache.invalidate(digest);
+        }
+    }
+
+    public void evictAll(Collection<String> jtis) {
+        for (String jti : jtis) {
+            evictByJti(jti);
+        }
+    }
+
+    public CacheStatistics getStats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private Entry findEntry(Jwt jwt) {
+        String digest = jwt.getId() != null ? digestsByJti.get(jwt.getId()) : null;
+        if (digest == null) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(digest);
+        if (entry == null || entry.getJwt() != jwt) {
+            return null;
+        }
+        return entry;
+    }
+
+    private static final class Entry {
+        private final Jwt jwt;
+        private volatile Collection<GrantedAuthority> authorities;
+
+        private Entry(Jwt jwt) {
+            this.jwt = jwt;
+        }
+
+        private Jwt getJwt() {
+            return jwt;
+        }
+
+        private String getJti() {
+            return jwt.getId();
+        }
+    }
+
+    private static final class ExpiresAtExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            Instant expiresAt = value.getJwt().getExpiresAt();
+            if (expiresAt == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public static class CacheStatistics {
+        private final long size;
+        private final long hitCount;
+        private final long missCount;
+        private final double hitRate;
+        private final long evictionCount;
+
+        public CacheStatistics(long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+            this.size = size;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.hitRate = hitRate;
+            this.evictionCount = evictionCount;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public double getHitRate() {
+            return hitRate;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache Stats - Size: %d, Hits: %d, Misses: %d, Hit rate: %.2f, Evictions: %d",
+                    size, hitCount, missCount, hitRate, evictionCount);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.vietlong.spring_app.controller;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -10,7 +11,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.vietlong.spring_app.common.ApiResponse;
+import com.vietlong.spring_app.common.IntrospectionCodec;
 import com.vietlong.spring_app.dto.request.IntrospectTokenRequest;
+import com.vietlong.spring_app.dto.request.IntrospectTokensRequest;
 import com.vietlong.spring_app.dto.request.LoginRequest;
 import com.vietlong.spring_app.dto.request.RegisterRequest;
 import com.vietlong.spring_app.dto.response.IntrospectTokenResponse;
@@ -24,6 +27,7 @@ import com.vietlong.spring_app.service.TokenBlacklistService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.Date;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -63,6 +67,29 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success(introspectResponse, message, request));
     }
 
+    @PostMapping("/introspect/batch")
+    public ResponseEntity<ApiResponse<List<IntrospectTokenResponse>>> introspectTokens(
+            @Valid @RequestBody IntrospectTokensRequest introspectRequest,
+            HttpServletRequest request) {
+        List<IntrospectTokenResponse> introspectResponses = authService.introspectTokens(introspectRequest.getTokens());
+        return ResponseEntity.ok(ApiResponse.success(introspectResponses, "Kiểm tra token thành công", request));
+    }
+
+    @PostMapping(value = "/introspect/binary", consumes = IntrospectionCodec.MEDIA_TYPE,
+            produces = IntrospectionCodec.MEDIA_TYPE)
+    public ResponseEntity<byte[]> introspectTokensBinary(@RequestBody byte[] body) {
+        List<String> tokens;
+        try {
+            tokens = IntrospectionCodec.decodeRequest(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<IntrospectTokenResponse> introspectResponses = authService.introspectTokens(tokens);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(IntrospectionCodec.MEDIA_TYPE))
+                .body(IntrospectionCodec.encodeResponse(introspectResponses));
+    }
+
     @PostMapping("/logout")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Void>> logout(
@@ -5,22 +5,68 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.vietlong.spring_app.common.ApiResponse;
+import com.vietlong.spring_app.config.VerifiedTokenCache;
+import com.vietlong.spring_app.config.VerifiedTokenCache.CacheStatistics;
+import com.vietlong.spring_app.dto.request.ForceLogoutUsersRequest;
 import com.vietlong.spring_app.exception.AppException;
 import com.vietlong.spring_app.model.ActiveToken;
+import com.vietlong.spring_app.service.BlacklistCircuitBreaker;
+import com.vietlong.spring_app.service.BlacklistCircuitBreaker.BreakerStats;
+import com.vietlong.spring_app.service.BlacklistReplica;
+import com.vietlong.spring_app.service.BlacklistReplica.ReplicaStats;
+import com.vietlong.spring_app.service.IntrospectionCache;
+import com.vietlong.spring_app.service.IntrospectionCache.IntrospectionStats;
+import com.vietlong.spring_app.service.RevocationEventBus;
+import com.vietlong.spring_app.service.RevocationEventBus.PropagationStats;
+import com.vietlong.spring_app.service.RevocationWatermarkService;
 import com.vietlong.spring_app.service.TokenBlacklistService;
 import com.vietlong.spring_app.service.TokenBlacklistService.BlacklistStats;
+import com.vietlong.spring_app.service.TokenBlacklistService.BulkRevocationResult;
+import com.vietlong.spring_app.service.TokenBlacklistService.LookupStats;
+import com.vietlong.spring_app.service.TokenPurgeEngine;
+import com.vietlong.spring_app.service.TokenPurgeEngine.PurgeProgress;
+import com.vietlong.spring_app.service.TokenStore;
+import com.vietlong.spring_app.service.TokenStore.StorageStats;
+import com.vietlong.spring_app.service.TokenWriteBehind;
+import com.vietlong.spring_app.service.TokenWriteBehind.WriteBehindStats;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+
 @RestController
 @RequestMapping("/api/admin/blacklist")
 public class AdminBlacklistController {
 
     private final TokenBlacklistService tokenBlacklistService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final BlacklistReplica blacklistReplica;
+    private final RevocationEventBus revocationEventBus;
+    private final RevocationWatermarkService revocationWatermarkService;
+    private final BlacklistCircuitBreaker blacklistCircuitBreaker;
+    private final IntrospectionCache introspectionCache;
+    private final TokenWriteBehind tokenWriteBehind;
+    private final TokenPurgeEngine tokenPurgeEngine;
+    private final TokenStore tokenStore;
 
-    public AdminBlacklistController(TokenBlacklistService tokenBlacklistService) {
+    public AdminBlacklistController(TokenBlacklistService tokenBlacklistService,
+            VerifiedTokenCache verifiedTokenCache, BlacklistReplica blacklistReplica,
+            RevocationEventBus revocationEventBus, RevocationWatermarkService revocationWatermarkService,
+            BlacklistCircuitBreaker blacklistCircuitBreaker, IntrospectionCache introspectionCache,
+            TokenWriteBehind tokenWriteBehind, TokenPurgeEngine tokenPurgeEngine, TokenStore tokenStore) {
         this.tokenBlacklistService = tokenBlacklistService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.blacklistReplica = blacklistReplica;
+        this.revocationEventBus = revocationEventBus;
+        this.revocationWatermarkService = revocationWatermarkService;
+        this.blacklistCircuitBreaker = blacklistCircuitBreaker;
+        this.introspectionCache = introspectionCache;
+        this.tokenWriteBehind = tokenWriteBehind;
+        this.tokenPurgeEngine = tokenPurgeEngine;
+        this.tokenStore = tokenStore;
     }
 
     @GetMapping("/stats")
@@ -31,6 +77,69 @@ public class AdminBlacklistController {
         return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê blacklist thành công", request));
     }
 
+    @GetMapping("/lookup-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<LookupStats>> getLookupStats(HttpServletRequest request) {
+        LookupStats stats = tokenBlacklistService.getLookupStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê tra cứu blacklist thành công", request));
+    }
+
+    @GetMapping("/breaker-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<BreakerStats>> getBreakerStats(HttpServletRequest request) {
+        BreakerStats stats = blacklistCircuitBreaker.getStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê circuit breaker thành công", request));
+    }
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CacheStatistics>> getVerifiedTokenCacheStats(HttpServletRequest request) {
+        CacheStatistics stats = verifiedTokenCache.getStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê token cache thành công", request));
+    }
+
+    @GetMapping("/introspection-cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<IntrospectionStats>> getIntrospectionCacheStats(HttpServletRequest request) {
+        IntrospectionStats stats = introspectionCache.getStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê introspection cache thành công", request));
+    }
+
+    @GetMapping("/write-behind-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<WriteBehindStats>> getWriteBehindStats(HttpServletRequest request) {
+        WriteBehindStats stats = tokenWriteBehind.getStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê write-behind thành công", request));
+    }
+
+    @GetMapping("/purge-progress")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<PurgeProgress>>> getPurgeProgress(HttpServletRequest request) {
+        List<PurgeProgress> progress = tokenPurgeEngine.getProgress();
+        return ResponseEntity.ok(ApiResponse.success(progress, "Lấy tiến độ purge thành công", request));
+    }
+
+    @GetMapping("/storage-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<StorageStats>> getStorageStats(HttpServletRequest request) {
+        StorageStats stats = tokenStore.getStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê token storage thành công", request));
+    }
+
+    @GetMapping("/replica-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ReplicaStats>> getReplicaStats(HttpServletRequest request) {
+        ReplicaStats stats = blacklistReplica.getStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê blacklist replica thành công", request));
+    }
+
+    @GetMapping("/propagation-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PropagationStats>> getPropagationStats(HttpServletRequest request) {
+        PropagationStats stats = revocationEventBus.getStats();
+        return ResponseEntity.ok(ApiResponse.success(stats, "Lấy thống kê revocation bus thành công", request));
+    }
+
     @PostMapping("/cleanup")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Integer>> manualCleanup(HttpServletRequest request) throws AppException {
@@ -59,6 +168,37 @@ public class AdminBlacklistController {
         return ResponseEntity.ok(ApiResponse.success("SUCCESS", "Force logout user thành công", request));
     }
 
+    @PostMapping("/users/force-logout")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<BulkRevocationResult>> forceLogoutUsers(
+            @Valid @RequestBody ForceLogoutUsersRequest forceLogoutRequest,
+            HttpServletRequest request) throws AppException {
+        BulkRevocationResult result = tokenBlacklistService.blacklistAllUsersTokens(forceLogoutRequest.getUserIds(),
+                forceLogoutRequest.getReason());
+        String message = result.isCompleted()
+                ? "Đã force logout " + result.getRevokedUsers() + " user"
+                : "Force logout dừng sau " + result.getProcessedUsers() + "/" + result.getRequestedUsers()
+                        + " user, cần gửi lại các user còn lại";
+        return ResponseEntity.ok(ApiResponse.success(result, message, request));
+    }
+
+    @PostMapping("/revoke-issued-before")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<LocalDateTime>> revokeTokensIssuedBefore(
+            @RequestParam(name = "issuedBefore", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime issuedBefore,
+            @RequestParam(name = "reason", defaultValue = "ADMIN_GLOBAL_REVOCATION") String reason,
+            HttpServletRequest request) throws AppException {
+        LocalDateTime watermark = revocationWatermarkService.revokeIssuedBefore(issuedBefore, reason);
+        return ResponseEntity.ok(ApiResponse.success(watermark, "Thu hồi token toàn hệ thống thành công", request));
+    }
+
+    @GetMapping("/revoke-issued-before")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<LocalDateTime>> getRevocationWatermark(HttpServletRequest request) {
+        LocalDateTime watermark = revocationWatermarkService.getIssuedBefore();
+        return ResponseEntity.ok(ApiResponse.success(watermark, "Lấy mốc thu hồi token thành công", request));
+    }
+
     @GetMapping("/user/{userId}/active-tokens")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<ActiveToken>>> getUserActiveTokens(
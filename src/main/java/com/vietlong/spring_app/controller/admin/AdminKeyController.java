@@ -0,0 +1,38 @@
+package com.vietlong.spring_app.controller.admin;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import com.vietlong.spring_app.common.ApiResponse;
+import com.vietlong.spring_app.config.JwtKeySet;
+import com.vietlong.spring_app.config.JwtKeySet.KeyInfo;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/admin/keys")
+public class AdminKeyController {
+
+    private final JwtKeySet jwtKeySet;
+
+    public AdminKeyController(JwtKeySet jwtKeySet) {
+        this.jwtKeySet = jwtKeySet;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<KeyInfo>>> getKeys(HttpServletRequest request) {
+        List<KeyInfo> keys = jwtKeySet.getKeys();
+        return ResponseEntity.ok(ApiResponse.success(keys, "Lấy danh sách signer key thành công", request));
+    }
+
+    @PostMapping("/rotate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<KeyInfo>> rotateKey(HttpServletRequest request) {
+        KeyInfo key = jwtKeySet.rotate();
+        return ResponseEntity.ok(ApiResponse.success(key, "Xoay vòng signer key thành công", request));
+    }
+}
@@ -0,0 +1,18 @@
+package com.vietlong.spring_app.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ForceLogoutUsersRequest {
+    @NotEmpty(message = "Danh sách user không được để trống")
+    @Size(max = 10000, message = "Tối đa 10000 user mỗi lần force logout")
+    private List<@NotBlank(message = "User ID không được để trống") String> userIds;
+
+    private String reason = "ADMIN_FORCE_LOGOUT";
+
+}
@@ -0,0 +1,16 @@
+package com.vietlong.spring_app.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class IntrospectTokensRequest {
+    @NotEmpty(message = "Danh sách token không được để trống")
+    @Size(max = 100, message = "Tối đa 100 token mỗi lần kiểm tra")
+    private List<@NotBlank(message = "Token không được để trống") String> tokens;
+
+}
@@ -24,6 +24,7 @@ public enum ErrorCode {
     BLACKLIST_CLEANUP_FAILED("TOKEN_004", "Lỗi khi dọn dẹp blacklist"),
     BLACKLIST_STATS_FAILED("TOKEN_005", "Lỗi khi lấy thống kê blacklist"),
     FORCE_LOGOUT_FAILED("TOKEN_006", "Không thể force logout user"),
+    GLOBAL_REVOCATION_FAILED("TOKEN_007", "Không thể thu hồi token toàn hệ thống"),
     CONFIGURATION_ERROR("CONFIG_001", "Lỗi cấu hình hệ thống"),
     DATABASE_ERROR("DB_001", "Lỗi kết nối cơ sở dữ liệu"),
     NETWORK_ERROR("NET_001", "Lỗi kết nối mạng");
@@ -168,6 +168,7 @@ public class GlobalExceptionHandler {
             case BLACKLIST_CLEANUP_FAILED:
             case BLACKLIST_STATS_FAILED:
             case FORCE_LOGOUT_FAILED:
+            case GLOBAL_REVOCATION_FAILED:
                 return HttpStatus.INTERNAL_SERVER_ERROR;
 
             case CONFIGURATION_ERROR:
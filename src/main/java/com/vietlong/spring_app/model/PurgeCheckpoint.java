@@ -0,0 +1,79 @@
+package com.vietlong.spring_app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(of = { "target", "cutoff", "deletedCount", "completedAt" })
+@EqualsAndHashCode(of = { "target" })
+@Entity
+@Table(name = "token_purge_checkpoints")
+public class PurgeCheckpoint {
+
+    @Id
+    @Column(name = "target", updatable = false, nullable = false, length = 50)
+    private String target;
+
+    @Column(name = "cutoff", nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(name = "deleted_count", nullable = false)
+    private long deletedCount;
+
+    @Column(name = "chunk_count", nullable = false)
+    private long chunkCount;
+
+    @Column(name = "last_expires_at")
+    private LocalDateTime lastExpiresAt;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public PurgeCheckpoint(String target, LocalDateTime cutoff) {
+        this.target = target;
+        this.cutoff = cutoff;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public void restart(LocalDateTime cutoff) {
+        this.cutoff = cutoff;
+        this.deletedCount = 0;
+        this.chunkCount = 0;
+        this.lastExpiresAt = null;
+        this.startedAt = LocalDateTime.now();
+        this.completedAt = null;
+    }
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+
+    public boolean isLeasedByOther(String owner, LocalDateTime now) {
+        return leaseOwner != null && !leaseOwner.equals(owner) && leaseExpiresAt != null
+                && leaseExpiresAt.isAfter(now);
+    }
+}
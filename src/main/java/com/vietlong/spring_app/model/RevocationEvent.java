@@ -0,0 +1,81 @@
+package com.vietlong.spring_app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(of = { "id", "type", "jti", "userId", "expiresAt" })
+@EqualsAndHashCode(of = { "id" })
+@Entity
+@Table(name = "token_revocation_events", indexes = {
+        @Index(name = "idx_revocation_event_created", columnList = "createdAt"),
+        @Index(name = "idx_revocation_event_expires", columnList = "expiresAt")
+})
+public class RevocationEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private RevocationType type;
+
+    @Column(name = "jti", length = 255)
+    private String jti;
+
+    @Column(name = "user_id", length = 255)
+    private String userId;
+
+    @Column(name = "generation")
+    private Long generation;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "origin_node", length = 64)
+    private String originNode;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public RevocationEvent(String jti, String userId, LocalDateTime expiresAt) {
+        this.type = RevocationType.TOKEN;
+        this.jti = jti;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    public RevocationEvent(String userId, long generation, LocalDateTime expiresAt) {
+        this.type = RevocationType.USER;
+        this.userId = userId;
+        this.generation = generation;
+        this.expiresAt = expiresAt;
+    }
+
+    public RevocationEvent(long issuedBeforeEpochSecond, LocalDateTime expiresAt) {
+        this.type = RevocationType.GLOBAL;
+        this.generation = issuedBeforeEpochSecond;
+        this.expiresAt = expiresAt;
+    }
+
+    public static RevocationEvent keyRotation(LocalDateTime expiresAt) {
+        RevocationEvent event = new RevocationEvent();
+        event.setType(RevocationType.KEY_ROTATION);
+        event.setExpiresAt(expiresAt);
+        return event;
+    }
+
+    public boolean isTokenRevocation() {
+        return this.type == RevocationType.TOKEN;
+    }
+}
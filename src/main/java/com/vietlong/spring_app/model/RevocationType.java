@@ -0,0 +1,8 @@
+package com.vietlong.spring_app.model;
+
+public enum RevocationType {
+    TOKEN,
+    USER,
+    GLOBAL,
+    KEY_ROTATION
+}
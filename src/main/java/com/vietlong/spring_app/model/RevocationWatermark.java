@@ -0,0 +1,39 @@
+package com.vietlong.spring_app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(of = { "id", "issuedBefore", "reason" })
+@EqualsAndHashCode(of = { "id" })
+@Entity
+@Table(name = "revocation_watermarks")
+public class RevocationWatermark {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false, length = 50)
+    private String id;
+
+    @Column(name = "issued_before", nullable = false)
+    private LocalDateTime issuedBefore;
+
+    @Column(name = "reason", length = 100)
+    private String reason;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public RevocationWatermark(String id, LocalDateTime issuedBefore, String reason) {
+        this.id = id;
+        this.issuedBefore = issuedBefore;
+        this.reason = reason;
+    }
+}
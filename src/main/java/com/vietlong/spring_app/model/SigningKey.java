@@ -0,0 +1,48 @@
+package com.vietlong.spring_app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(of = { "kid", "status", "createdAt", "activatedAt", "retiredAt" })
+@EqualsAndHashCode(of = { "kid" })
+@Entity
+@Table(name = "jwt_signing_keys", indexes = {
+        @Index(name = "idx_signing_key_status", columnList = "status")
+})
+public class SigningKey {
+
+    @Id
+    @Column(name = "kid", updatable = false, nullable = false, length = 64)
+    private String kid;
+
+    @Column(name = "secret", nullable = false, updatable = false, length = 128)
+    private String secret;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private SigningKeyStatus status;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "activated_at")
+    private LocalDateTime activatedAt;
+
+    @Column(name = "retired_at")
+    private LocalDateTime retiredAt;
+
+    public SigningKey(String kid, String secret) {
+        this.kid = kid;
+        this.secret = secret;
+        this.status = SigningKeyStatus.PENDING;
+    }
+}
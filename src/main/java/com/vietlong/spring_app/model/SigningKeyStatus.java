@@ -0,0 +1,7 @@
+package com.vietlong.spring_app.model;
+
+public enum SigningKeyStatus {
+    PENDING,
+    ACTIVE,
+    RETIRED
+}
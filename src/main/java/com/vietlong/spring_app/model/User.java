@@ -3,6 +3,7 @@ package com.vietlong.spring_app.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -63,6 +64,11 @@ public class User {
     @Column(name = "is_phone_verified", nullable = false)
     private Boolean isPhoneVerified = false;
 
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "token_generation", nullable = false, updatable = false)
+    private Long tokenGeneration = 0L;
+
     @Size(max = 500, message = "Địa chỉ không được vượt quá 500 ký tự")
     @Column(name = "address", length = 500)
     private String address;
@@ -94,6 +100,9 @@ public class User {
     private void onCreate() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        if (this.tokenGeneration == null) {
+            this.tokenGeneration = 0L;
+        }
     }
 
     @PreUpdate
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,13 @@ public interface ActiveTokenRepository extends JpaRepository<ActiveToken, String
 
     List<ActiveToken> findByUserId(String userId);
 
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO active_tokens (id, jti, user_id, expires_at, created_at, device_info) "
+            + "VALUES (:id, :jti, :userId, :expiresAt, :createdAt, :deviceInfo)", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("jti") String jti, @Param("userId") String userId,
+            @Param("expiresAt") LocalDateTime expiresAt, @Param("createdAt") LocalDateTime createdAt,
+            @Param("deviceInfo") String deviceInfo);
+
     @Modifying
     @Query("DELETE FROM ActiveToken at WHERE at.expiresAt < :currentTime")
     int deleteExpiredTokens(@Param("currentTime") LocalDateTime currentTime);
@@ -28,6 +36,10 @@ public interface ActiveTokenRepository extends JpaRepository<ActiveToken, String
     @Query("DELETE FROM ActiveToken at WHERE at.userId = :userId")
     void deleteAllByUserId(@Param("userId") String userId);
 
+    @Modifying
+    @Query("DELETE FROM ActiveToken at WHERE at.userId IN :userIds")
+    int deleteAllByUserIdIn(@Param("userIds") Collection<String> userIds);
+
     @Modifying
     @Query("DELETE FROM ActiveToken at WHERE at.jti = :jti")
     void deleteByJti(@Param("jti") String jti);
@@ -9,6 +9,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,6 +20,26 @@ public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedTok
 
     Optional<BlacklistedToken> findByJti(String jti);
 
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO blacklisted_tokens (id, jti, user_id, expires_at, blacklisted_at, reason) "
+            + "VALUES (:id, :jti, :userId, :expiresAt, :blacklistedAt, :reason)", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("jti") String jti, @Param("userId") String userId,
+            @Param("expiresAt") LocalDateTime expiresAt, @Param("blacklistedAt") LocalDateTime blacklistedAt,
+            @Param("reason") String reason);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO blacklisted_tokens (id, jti, user_id, expires_at, blacklisted_at, reason) "
+            + "SELECT at.id, at.jti, at.user_id, at.expires_at, :blacklistedAt, :reason FROM active_tokens at "
+            + "WHERE at.user_id IN (:userIds) AND at.expires_at > :blacklistedAt", nativeQuery = true)
+    int insertFromActiveTokens(@Param("userIds") Collection<String> userIds,
+            @Param("blacklistedAt") LocalDateTime blacklistedAt, @Param("reason") String reason);
+
+    @Query("SELECT bt.jti FROM BlacklistedToken bt WHERE bt.jti IN :jtis")
+    List<String> findJtisIn(@Param("jtis") Collection<String> jtis);
+
+    @Query("SELECT bt.jti AS jti, bt.expiresAt AS expiresAt FROM BlacklistedToken bt WHERE bt.expiresAt > :currentTime")
+    List<JtiExpiry> findJtisExpiringAfter(@Param("currentTime") LocalDateTime currentTime);
+
     @Modifying
     @Query("DELETE FROM BlacklistedToken bt WHERE bt.expiresAt < :currentTime")
     int deleteExpiredTokens(@Param("currentTime") LocalDateTime currentTime);
@@ -34,4 +56,10 @@ public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedTok
     @Modifying
     @Query("DELETE FROM BlacklistedToken bt WHERE bt.userId NOT IN (SELECT u.id FROM User u)")
     int deleteOrphanedBlacklistedTokens();
+
+    interface JtiExpiry {
+        String getJti();
+
+        LocalDateTime getExpiresAt();
+    }
 }
@@ -0,0 +1,10 @@
+package com.vietlong.spring_app.repository;
+
+import com.vietlong.spring_app.model.PurgeCheckpoint;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PurgeCheckpointRepository extends JpaRepository<PurgeCheckpoint, String> {
+}
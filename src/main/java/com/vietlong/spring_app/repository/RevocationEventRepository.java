@@ -0,0 +1,29 @@
+package com.vietlong.spring_app.repository;
+
+import com.vietlong.spring_app.model.RevocationEvent;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevocationEventRepository extends JpaRepository<RevocationEvent, Long> {
+
+    @Query("SELECT e FROM RevocationEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<RevocationEvent> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    List<RevocationEvent> findByCreatedAtAfter(LocalDateTime createdAt);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM RevocationEvent e")
+    long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM RevocationEvent e WHERE e.expiresAt < :currentTime")
+    int deleteExpiredEvents(@Param("currentTime") LocalDateTime currentTime);
+}
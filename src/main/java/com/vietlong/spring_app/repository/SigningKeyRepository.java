@@ -0,0 +1,34 @@
+package com.vietlong.spring_app.repository;
+
+import com.vietlong.spring_app.model.SigningKey;
+import com.vietlong.spring_app.model.SigningKeyStatus;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findAllByOrderByCreatedAtAsc();
+
+    List<SigningKey> findByStatus(SigningKeyStatus status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SigningKey k SET k.status = :active, k.activatedAt = :activatedAt "
+            + "WHERE k.kid = :kid AND k.status = :pending")
+    int promote(@Param("kid") String kid, @Param("pending") SigningKeyStatus pending,
+            @Param("active") SigningKeyStatus active, @Param("activatedAt") LocalDateTime activatedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SigningKey k SET k.status = :retired, k.retiredAt = :retiredAt WHERE k.kid <> :kid "
+            + "AND (k.status = :active OR (k.status = :pending AND k.createdAt < :createdBefore))")
+    int retireSuperseded(@Param("kid") String kid, @Param("createdBefore") LocalDateTime createdBefore,
+            @Param("active") SigningKeyStatus active, @Param("pending") SigningKeyStatus pending,
+            @Param("retired") SigningKeyStatus retired, @Param("retiredAt") LocalDateTime retiredAt);
+}
@@ -1,10 +1,17 @@
 package com.vietlong.spring_app.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.vietlong.spring_app.model.Role;
 import com.vietlong.spring_app.model.User;
 
 @Repository
@@ -12,4 +19,43 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByPhoneNumber(String phoneNumber);
+
+    @Query("SELECT u.id AS id, u.email AS email, u.password AS password, u.role AS role FROM User u WHERE u.email = :email")
+    Optional<CredentialView> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("SELECT u.tokenGeneration FROM User u WHERE u.id = :userId")
+    Optional<Long> findTokenGenerationById(@Param("userId") String userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenGeneration = u.tokenGeneration + 1 WHERE u.id = :userId")
+    int incrementTokenGeneration(@Param("userId") String userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenGeneration = u.tokenGeneration + 1 WHERE u.id IN :userIds")
+    int incrementTokenGenerations(@Param("userIds") Collection<String> userIds);
+
+    @Query("SELECT u.id AS id, u.tokenGeneration AS tokenGeneration FROM User u WHERE u.id IN :userIds")
+    List<TokenGenerationView> findTokenGenerationsByIdIn(@Param("userIds") Collection<String> userIds);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :userId AND u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("userId") String userId, @Param("currentPassword") String currentPassword,
+            @Param("newPassword") String newPassword);
+
+    interface CredentialView {
+        String getId();
+
+        String getEmail();
+
+        String getPassword();
+
+        Role getRole();
+    }
+
+    interface TokenGenerationView {
+        String getId();
+
+        Long getTokenGeneration();
+    }
 }
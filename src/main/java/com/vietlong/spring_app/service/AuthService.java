@@ -1,36 +1,31 @@
 package com.vietlong.spring_app.service;
 
-import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSObject;
-import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.Payload;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.vietlong.spring_app.common.JwtConstants;
 import com.vietlong.spring_app.common.Mapper;
-import com.vietlong.spring_app.common.TimeConstants;
-import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.common.TokenDigests;
+import com.vietlong.spring_app.config.ClientIpResolver;
+import com.vietlong.spring_app.config.CustomJwtDecoder;
+import com.vietlong.spring_app.config.JwtKeySet;
 import com.vietlong.spring_app.dto.request.IntrospectTokenRequest;
 import com.vietlong.spring_app.dto.request.LoginRequest;
 import com.vietlong.spring_app.dto.request.RegisterRequest;
@@ -42,6 +37,8 @@ import com.vietlong.spring_app.exception.ErrorCode;
 import com.vietlong.spring_app.model.Role;
 import com.vietlong.spring_app.model.User;
 import com.vietlong.spring_app.repository.UserRepository;
+import com.vietlong.spring_app.service.TokenIssuer.IssuedToken;
+import com.vietlong.spring_app.service.UserCredentialCache.Credentials;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -52,16 +49,37 @@ import lombok.extern.slf4j.Slf4j;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtConfig jwtConfig;
+    private final PasswordHashingService passwordHashingService;
+    private final JwtKeySet jwtKeySet;
     private final TokenBlacklistService tokenBlacklistService;
-
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtConfig jwtConfig,
-            TokenBlacklistService tokenBlacklistService) {
+    private final TokenIssuer tokenIssuer;
+    private final UserCredentialCache userCredentialCache;
+    private final TokenGenerationService tokenGenerationService;
+    private final LoginFailureTracker loginFailureTracker;
+    private final IntrospectionCache introspectionCache;
+    private final RevocationWatermarkService revocationWatermarkService;
+    private final ClientIpResolver clientIpResolver;
+    private final CustomJwtDecoder customJwtDecoder;
+
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+            JwtKeySet jwtKeySet,
+            TokenBlacklistService tokenBlacklistService, TokenIssuer tokenIssuer,
+            UserCredentialCache userCredentialCache, TokenGenerationService tokenGenerationService,
+            LoginFailureTracker loginFailureTracker, IntrospectionCache introspectionCache,
+            RevocationWatermarkService revocationWatermarkService, ClientIpResolver clientIpResolver,
+            CustomJwtDecoder customJwtDecoder) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.jwtConfig = jwtConfig;
+        this.passwordHashingService = passwordHashingService;
+        this.jwtKeySet = jwtKeySet;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenIssuer = tokenIssuer;
+        this.userCredentialCache = userCredentialCache;
+        this.tokenGenerationService = tokenGenerationService;
+        this.loginFailureTracker = loginFailureTracker;
+        this.introspectionCache = introspectionCache;
+        this.revocationWatermarkService = revocationWatermarkService;
+        this.clientIpResolver = clientIpResolver;
+        this.customJwtDecoder = customJwtDecoder;
     }
 
     public UserResponse handleRegister(RegisterRequest registerRequest) throws AppException {
@@ -85,7 +103,7 @@ public class AuthService {
         User user = new User();
         user.setDisplayName(registerRequest.getDisplayName());
         user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(passwordHashingService.encode(registerRequest.getPassword()));
         user.setRole(Role.USER);
         user.setPhoneNumber(registerRequest.getPhoneNumber());
         user.setDateOfBirth(registerRequest.getDateOfBirth());
@@ -100,60 +118,149 @@ public class AuthService {
 
     public LoginResponse handleLogin(LoginRequest loginRequest, HttpServletRequest request) throws AppException {
         String email = loginRequest.getEmail();
+        String clientIp = request != null ? clientIpResolver.resolve(request) : null;
 
-        Optional<User> userOptional = userRepository.findByEmail(email);
-        if (!userOptional.isPresent()) {
-            throw new AppException(ErrorCode.USER_NOT_FOUND);
+        if (loginFailureTracker.isBlocked(email, clientIp)) {
+            throw new AppException(ErrorCode.USER_IS_BLOCKED);
         }
 
-        User user = userOptional.get();
+        Credentials user = userCredentialCache.get(email);
+        if (user == null) {
+            loginFailureTracker.recordFailure(email, clientIp);
+            throw new AppException(ErrorCode.USER_NOT_FOUND);
+        }
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
+            loginFailureTracker.recordFailure(email, clientIp);
             throw new AppException(ErrorCode.INVALID_CREDENTIALS);
         }
 
-        String token = generateToken(user);
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            rehashPassword(user, loginRequest.getPassword());
+        }
+
+        IssuedToken issuedToken = tokenIssuer.issue(user.getId(), user.getEmail(), user.getRole(),
+                tokenGenerationService.currentGeneration(user.getId()));
 
         try {
-            JWTClaimsSet claimsSet = verifyToken(token);
-            String jti = claimsSet.getJWTID();
-            Date expirationTime = claimsSet.getExpirationTime();
             String deviceInfo = extractDeviceInfo(request);
-
-            tokenBlacklistService.saveActiveToken(jti, user.getId(), expirationTime, deviceInfo);
+            tokenBlacklistService.saveActiveToken(issuedToken.getJti(), user.getId(), issuedToken.getExpiresAt(),
+                    deviceInfo);
         } catch (Exception e) {
             log.error("Lỗi khi lưu active token cho user {}: {}", user.getEmail(), e.getMessage(), e);
         }
 
         return LoginResponse.builder()
                 .success(true)
-                .token(token)
+                .token(issuedToken.getToken())
                 .build();
     }
 
+    private void rehashPassword(Credentials user, String rawPassword) {
+        passwordHashingService.encodeInBackground(rawPassword).whenComplete((newPassword, error) -> {
+            if (error != null) {
+                log.warn("Không thể cập nhật hash mật khẩu cho user {}: {}", user.getEmail(), error.getMessage());
+                return;
+            }
+            try {
+                if (userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(), newPassword) > 0) {
+                    passwordHashingService.recordRehash();
+                }
+                userCredentialCache.invalidate(user.getEmail());
+            } catch (Exception e) {
+                log.warn("Không thể cập nhật hash mật khẩu cho user {}: {}", user.getEmail(), e.getMessage());
+            }
+        });
+    }
+
     public IntrospectTokenResponse introspectToken(IntrospectTokenRequest request) {
-        String token = request.getToken();
+        IntrospectionCandidate candidate = prepareIntrospection(request.getToken());
+        if (candidate.result != null) {
+            return candidate.result;
+        }
+
+        try {
+            return completeIntrospection(candidate, tokenBlacklistService.isTokenBlacklisted(candidate.jti,
+                    candidate.claimsSet.getExpirationTime()));
+        } catch (AppException e) {
+            log.warn("Không thể kiểm tra trạng thái thu hồi token: {}", e.getMessage());
+            return introspectionCache.invalid();
+        }
+    }
+
+    public List<IntrospectTokenResponse> introspectTokens(List<String> tokens) {
+        List<IntrospectionCandidate> candidates = tokens.stream()
+                .map(this::prepareIntrospection)
+                .toList();
+
+        Map<String, Date> jtis = new HashMap<>();
+        for (IntrospectionCandidate candidate : candidates) {
+            if (candidate.result == null && candidate.jti != null) {
+                jtis.put(candidate.jti, candidate.claimsSet.getExpirationTime());
+            }
+        }
+
+        Set<String> blacklistedJtis = null;
+        try {
+            blacklistedJtis = tokenBlacklistService.findBlacklistedJtis(jtis);
+        } catch (AppException e) {
+            log.warn("Không thể kiểm tra trạng thái thu hồi của {} token: {}", jtis.size(), e.getMessage());
+        }
+
+        List<IntrospectTokenResponse> results = new ArrayList<>(candidates.size());
+        for (IntrospectionCandidate candidate : candidates) {
+            if (candidate.result != null) {
+                results.add(candidate.result);
+            } else if (blacklistedJtis == null) {
+                results.add(introspectionCache.invalid());
+            } else {
+                results.add(completeIntrospection(candidate,
+                        candidate.jti != null && blacklistedJtis.contains(candidate.jti)));
+            }
+        }
+        return results;
+    }
+
+    private IntrospectionCandidate prepareIntrospection(String token) {
+        String digest = TokenDigests.sha256(token);
+
+        IntrospectTokenResponse cached = introspectionCache.get(digest);
+        if (cached != null) {
+            return new IntrospectionCandidate(digest, null, cached);
+        }
 
         try {
             JWTClaimsSet claimsSet = verifyToken(token);
 
             Date expirationTime = claimsSet.getExpirationTime();
             if (expirationTime != null && expirationTime.before(new Date())) {
-                return IntrospectTokenResponse.builder()
-                        .isValid(false)
-                        .build();
+                return new IntrospectionCandidate(digest, null, introspectionCache.putInvalid(digest));
             }
 
-            if (!claimsSet.getAudience().contains(JwtConstants.AUDIENCE)) {
-                return IntrospectTokenResponse.builder()
-                        .isValid(false)
-                        .build();
+            return new IntrospectionCandidate(digest, claimsSet, null);
+
+        } catch (Exception e) {
+            log.warn("Token introspection failed: {}", e.getMessage());
+            return new IntrospectionCandidate(digest, null, introspectionCache.putInvalid(digest));
+        }
+    }
+
+    private IntrospectTokenResponse completeIntrospection(IntrospectionCandidate candidate, boolean blacklisted) {
+        JWTClaimsSet claimsSet = candidate.claimsSet;
+        String digest = candidate.digest;
+
+        try {
+            String userId = claimsSet.getStringClaim(JwtConstants.USER_ID_CLAIM);
+            Object generationClaim = claimsSet.getClaim(JwtConstants.TOKEN_GENERATION_CLAIM);
+            long generation = generationClaim instanceof Number number ? number.longValue() : 0L;
+            Date issuedAt = claimsSet.getIssueTime();
+            if (blacklisted || isRevoked(userId, generation, issuedAt)) {
+                return introspectionCache.putInvalid(digest);
             }
 
             String scope = claimsSet.getStringClaim(JwtConstants.SCOPE_CLAIM);
             String email = claimsSet.getStringClaim(JwtConstants.EMAIL_CLAIM);
-            String jti = claimsSet.getJWTID();
-            Date issuedAt = claimsSet.getIssueTime();
+            Date expirationTime = claimsSet.getExpirationTime();
 
             LocalDateTime expiresAt = null;
             LocalDateTime issuedAtLocal = null;
@@ -170,67 +277,65 @@ public class AuthService {
                         .toLocalDateTime();
             }
 
-            return IntrospectTokenResponse.builder()
+            IntrospectTokenResponse response = IntrospectTokenResponse.builder()
                     .isValid(true)
                     .scope(scope)
                     .clientId(JwtConstants.AUDIENCE)
                     .username(email)
                     .expiresAt(expiresAt)
                     .issuedAt(issuedAtLocal)
-                    .jti(jti)
+                    .jti(candidate.jti)
                     .build();
 
-        } catch (Exception e) {
+            return introspectionCache.putValid(digest, response, userId, generation,
+                    issuedAt != null ? issuedAt.toInstant() : null,
+                    expirationTime != null ? expirationTime.toInstant() : null);
+
+        } catch (ParseException e) {
             log.warn("Token introspection failed: {}", e.getMessage());
-            return IntrospectTokenResponse.builder()
-                    .isValid(false)
-                    .build();
+            return introspectionCache.putInvalid(digest);
+        } catch (Exception e) {
+            log.warn("Không thể kiểm tra trạng thái thu hồi token: {}", e.getMessage());
+            return introspectionCache.invalid();
+        }
+    }
+
+    private boolean isRevoked(String userId, long generation, Date issuedAt) {
+        if (revocationWatermarkService.isRevoked(issuedAt != null ? issuedAt.toInstant() : null)) {
+            return true;
+        }
+        return userId != null && !tokenGenerationService.isCurrent(userId, generation);
+    }
+
+    private static final class IntrospectionCandidate {
+        private final String digest;
+        private final JWTClaimsSet claimsSet;
+        private final String jti;
+        private final IntrospectTokenResponse result;
+
+        private IntrospectionCandidate(String digest, JWTClaimsSet claimsSet, IntrospectTokenResponse result) {
+            this.digest = digest;
+            this.claimsSet = claimsSet;
+            this.jti = claimsSet != null ? claimsSet.getJWTID() : null;
+            this.result = result;
         }
     }
 
     private JWTClaimsSet verifyToken(String token) throws Exception {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
-            JWSVerifier verifier = new MACVerifier(jwtConfig.getSignerKey().getBytes(StandardCharsets.UTF_8));
-            boolean isValid = signedJWT.verify(verifier);
-
-            if (!isValid) {
+            if (!JWSAlgorithm.HS512.equals(signedJWT.getHeader().getAlgorithm()) || !jwtKeySet.verify(signedJWT)) {
                 throw new Exception("Token signature không hợp lệ");
             }
 
-            return signedJWT.getJWTClaimsSet();
-        } catch (JOSEException | ParseException e) {
+            JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
+            customJwtDecoder.validate(token, signedJWT, claimsSet);
+            return claimsSet;
+        } catch (ParseException e) {
             throw new Exception("Token không hợp lệ: " + e.getMessage());
         }
     }
 
-    private String generateToken(User user) throws AppException {
-        JWSHeader jwsHeader = new JWSHeader(JWSAlgorithm.HS512);
-
-        JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
-                .subject(user.getEmail())
-                .issuer(JwtConstants.ISSUER)
-                .audience(JwtConstants.AUDIENCE)
-                .issueTime(new Date())
-                .expirationTime(new Date(System.currentTimeMillis()
-                        + TimeConstants.MILLISECONDS_PER_HOUR * jwtConfig.getExpirationHours()))
-                .jwtID(UUID.randomUUID().toString())
-                .claim(JwtConstants.USER_ID_CLAIM, user.getId())
-                .claim(JwtConstants.EMAIL_CLAIM, user.getEmail())
-                .claim(JwtConstants.SCOPE_CLAIM, user.getRole().name())
-                .build();
-
-        JWSObject jwsObject = new JWSObject(jwsHeader, new Payload(jwtClaimsSet.toJSONObject()));
-
-        try {
-            jwsObject.sign(new MACSigner(jwtConfig.getSignerKey().getBytes(StandardCharsets.UTF_8)));
-        } catch (JOSEException e) {
-            throw new AppException(ErrorCode.INTERNAL_SERVER_ERROR);
-        }
-
-        return jwsObject.serialize();
-    }
-
     private org.springframework.security.oauth2.jwt.Jwt getJwtFromAuthentication(Authentication authentication)
             throws AppException {
         if (authentication.getPrincipal() instanceof org.springframework.security.oauth2.jwt.Jwt) {
@@ -0,0 +1,243 @@
+package com.vietlong.spring_app.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.vietlong.spring_app.config.JwtConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class BlacklistCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final JwtConfig jwtConfig;
+    private final ThreadPoolExecutor executor;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final LongAdder successfulCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder timedOutCalls = new LongAdder();
+    private final LongAdder rejectedCalls = new LongAdder();
+    private final LongAdder shortCircuitedCalls = new LongAdder();
+    private final Counter openedTransitions;
+    private final Counter halfOpenedTransitions;
+    private final Counter closedTransitions;
+
+    private volatile long openedAtMillis = 0L;
+
+    public BlacklistCircuitBreaker(JwtConfig jwtConfig, MeterRegistry meterRegistry) {
+        this.jwtConfig = jwtConfig;
+        int maxConcurrentCalls = jwtConfig.getBlacklistBreakerMaxConcurrentCalls();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxConcurrentCalls), runnable -> {
+                    Thread thread = new Thread(runnable, "blacklist-lookup-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.openedTransitions = transitionCounter(meterRegistry, State.OPEN);
+        this.halfOpenedTransitions = transitionCounter(meterRegistry, State.HALF_OPEN);
+        this.closedTransitions = transitionCounter(meterRegistry, State.CLOSED);
+        Gauge.builder("jwt.blacklist.breaker.state", state, s -> s.get().ordinal())
+                .description("0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN")
+                .register(meterRegistry);
+    }
+
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.currentTimeMillis() - openedAtMillis < jwtConfig.getBlacklistBreakerOpenDuration()) {
+                shortCircuitedCalls.increment();
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                halfOpenedTransitions.increment();
+                log.info("Blacklist circuit breaker chuyển sang HALF_OPEN");
+                return true;
+            }
+        }
+        shortCircuitedCalls.increment();
+        return false;
+    }
+
+    public <T> T execute(Callable<T> call) throws Exception {
+        Future<T> future;
+        try {
+            future = executor.submit(call);
+        } catch (RejectedExecutionException e) {
+            onRejected();
+            throw e;
+        }
+
+        try {
+            T result = future.get(jwtConfig.getBlacklistBreakerTimeout(), TimeUnit.MILLISECONDS);
+            onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutCalls.increment();
+            onFailure();
+            throw e;
+        } catch (ExecutionException e) {
+            onFailure();
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public BreakerStats getStats() {
+        return new BreakerStats(state.get(), consecutiveFailures.get(), successfulCalls.sum(), failedCalls.sum(),
+                timedOutCalls.sum(), rejectedCalls.sum(), shortCircuitedCalls.sum(),
+                (long) openedTransitions.count(), (long) halfOpenedTransitions.count(),
+                (long) closedTransitions.count());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void onSuccess() {
+        successfulCalls.increment();
+        consecutiveFailures.set(0);
+        if (state.get() != State.CLOSED && state.getAndSet(State.CLOSED) != State.CLOSED) {
+            closedTransitions.increment();
+            log.info("Blacklist circuit breaker chuyển sang CLOSED");
+        }
+    }
+
+    private void onRejected() {
+        rejectedCalls.increment();
+        if (state.compareAndSet(State.HALF_OPEN, State.OPEN)) {
+            log.debug("Blacklist circuit breaker từ chối lượt thử HALF_OPEN do executor đầy, chờ lượt thử tiếp theo");
+        }
+    }
+
+    private void onFailure() {
+        failedCalls.increment();
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN
+                || (current == State.CLOSED && failures >= jwtConfig.getBlacklistBreakerFailureThreshold())) {
+            if (state.compareAndSet(current, State.OPEN)) {
+                openedAtMillis = System.currentTimeMillis();
+                openedTransitions.increment();
+                log.warn("Blacklist circuit breaker chuyển sang OPEN sau {} lỗi liên tiếp", failures);
+            }
+        }
+    }
+
+    private static Counter transitionCounter(MeterRegistry meterRegistry, State to) {
+        return Counter.builder("jwt.blacklist.breaker.transitions")
+                .tag("to", to.name())
+                .register(meterRegistry);
+    }
+
+    public static class BreakerStats {
+        private final State state;
+        private final int consecutiveFailures;
+        private final long successfulCalls;
+        private final long failedCalls;
+        private final long timedOutCalls;
+        private final long rejectedCalls;
+        private final long shortCircuitedCalls;
+        private final long openedTransitions;
+        private final long halfOpenedTransitions;
+        private final long closedTransitions;
+
+        public BreakerStats(State state, int consecutiveFailures, long successfulCalls, long failedCalls,
+                long timedOutCalls, long rejectedCalls, long shortCircuitedCalls, long openedTransitions,
+                long halfOpenedTransitions, long closedTransitions) {
+            this.state = state;
+            this.consecutiveFailures = consecutiveFailures;
+            this.successfulCalls = successfulCalls;
+            this.failedCalls = failedCalls;
+            this.timedOutCalls = timedOutCalls;
+            this.rejectedCalls = rejectedCalls;
+            this.shortCircuitedCalls = shortCircuitedCalls;
+            this.openedTransitions = openedTransitions;
+            this.halfOpenedTransitions = halfOpenedTransitions;
+            this.closedTransitions = closedTransitions;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public long getSuccessfulCalls() {
+            return successfulCalls;
+        }
+
+        public long getFailedCalls() {
+            return failedCalls;
+        }
+
+        public long getTimedOutCalls() {
+            return timedOutCalls;
+        }
+
+        public long getRejectedCalls() {
+            return rejectedCalls;
+        }
+
+        public long getShortCircuitedCalls() {
+            return shortCircuitedCalls;
+        }
+
+        public long getOpenedTransitions() {
+            return openedTransitions;
+        }
+
+        public long getHalfOpenedTransitions() {
+            return halfOpenedTransitions;
+        }
+
+        public long getClosedTransitions() {
+            return closedTransitions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Breaker Stats - State: %s, Failures: %d, Timeouts: %d, Rejected: %d, Opened: %d",
+                    state, failedCalls, timedOutCalls, rejectedCalls, openedTransitions);
+        }
+    }
+}
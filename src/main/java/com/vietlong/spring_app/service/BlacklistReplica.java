@@ -0,0 +1,202 @@
+package com.vietlong.spring_app.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.vietlong.spring_app.common.JtiHash;
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.repository.BlacklistedTokenRepository;
+import com.vietlong.spring_app.repository.BlacklistedTokenRepository.JtiExpiry;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class BlacklistReplica implements RevocationListener {
+
+    private final BlacklistedTokenRepository blacklistedTokenRepository;
+    private final RevocationEventBus revocationEventBus;
+    private final BlacklistSnapshotStore blacklistSnapshotStore;
+    private final JwtConfig jwtConfig;
+    private final JtiExpiryTable table = new JtiExpiryTable();
+    private final Object loadLock = new Object();
+
+    private volatile boolean ready = false;
+
+    public BlacklistReplica(BlacklistedTokenRepository blacklistedTokenRepository,
+            RevocationEventBus revocationEventBus, BlacklistSnapshotStore blacklistSnapshotStore,
+            JwtConfig jwtConfig) {
+        this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.revocationEventBus = revocationEventBus;
+        this.blacklistSnapshotStore = blacklistSnapshotStore;
+        this.jwtConfig = jwtConfig;
+    }
+
+    @PostConstruct
+    private void subscribe() {
+        revocationEventBus.subscribe(this);
+    }
+
+    public boolean isFresh() {
+        return ready && System.currentTimeMillis()
+                - revocationEventBus.getLastSyncAtMillis() <= jwtConfig.getBlacklistReplicaMaxLag();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getStalenessMillis() {
+        return System.currentTimeMillis() - revocationEventBus.getLastSyncAtMillis();
+    }
+
+    public boolean contains(String jti) {
+        return table.contains(JtiHash.hash64(jti), System.currentTimeMillis() / 1000L);
+    }
+
+    public void add(String jti, LocalDateTime expiresAt) {
+        table.put(JtiHash.hash64(jti), toEpochSecond(expiresAt));
+    }
+
+    @Override
+    public void onRevocation(RevocationEvent event) {
+        if (!event.isTokenRevocation()) {
+            return;
+        }
+        add(event.getJti(), event.getExpiresAt());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        synchronized (loadLock) {
+            if (ready) {
+                return;
+            }
+            try {
+                long startedAt = System.currentTimeMillis();
+                if (!loadFromSnapshot()) {
+                    List<JtiExpiry> entries = blacklistedTokenRepository.findJtisExpiringAfter(LocalDateTime.now());
+                    for (JtiExpiry entry : entries) {
+                        add(entry.getJti(), entry.getExpiresAt());
+                    }
+                }
+                ready = true;
+
+                log.info("Đã nạp blacklist replica với {} jti trong {} ms", table.size(),
+                        System.currentTimeMillis() - startedAt);
+            } catch (Exception e) {
+                log.error("Lỗi khi nạp blacklist replica: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spring.jwt.blacklist.replica.expire-interval}")
+    public void expireEntries() {
+        if (!ready) {
+            initialize();
+            return;
+        }
+        table.expire(System.currentTimeMillis() / 1000L);
+    }
+
+    public void checkpoint() throws IOException {
+        if (!ready || !jwtConfig.isBlacklistSnapshotEnabled()) {
+            return;
+        }
+        long sequence = revocationEventBus.getSafeSequence();
+        if (sequence < 0) {
+            return;
+        }
+        long[] entries = table.exportEntries(System.currentTimeMillis() / 1000L);
+        blacklistSnapshotStore.write(sequence, entries);
+        log.debug("Đã ghi blacklist snapshot với {} jti tại sequence {}", entries.length / 2, sequence);
+    }
+
+    private boolean loadFromSnapshot() {
+        if (!jwtConfig.isBlacklistSnapshotEnabled()) {
+            return false;
+        }
+        BlacklistSnapshotStore.Snapshot snapshot = blacklistSnapshotStore.read();
+        if (snapshot == null) {
+            return false;
+        }
+
+        long nowEpochSecond = System.currentTimeMillis() / 1000L;
+        long[] entries = snapshot.getEntries();
+        for (int i = 0; i + 1 < entries.length; i += 2) {
+            if (entries[i + 1] > nowEpochSecond) {
+                table.put(entries[i], entries[i + 1]);
+            }
+        }
+
+        if (!revocationEventBus.replay(snapshot.getSequence(), this)) {
+            log.warn("Không thể bắt kịp revocation events sau snapshot, nạp lại toàn bộ blacklist");
+            table.clear();
+            return false;
+        }
+        return true;
+    }
+
+    public ReplicaStats getStats() {
+        int size = table.size();
+        long bytes = table.estimatedBytes();
+        long lastSyncAt = revocationEventBus.getLastSyncAtMillis();
+        long syncLag = lastSyncAt == 0L ? -1L : System.currentTimeMillis() - lastSyncAt;
+        return new ReplicaStats(ready, size, bytes, size == 0 ? 0 : bytes / size, syncLag);
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    public static class ReplicaStats {
+        private final boolean ready;
+        private final int entries;
+        private final long estimatedBytes;
+        private final long bytesPerEntry;
+        private final long syncLagMillis;
+
+        public ReplicaStats(boolean ready, int entries, long estimatedBytes, long bytesPerEntry, long syncLagMillis) {
+            this.ready = ready;
+            this.entries = entries;
+            this.estimatedBytes = estimatedBytes;
+            this.bytesPerEntry = bytesPerEntry;
+            this.syncLagMillis = syncLagMillis;
+        }
+
+        public boolean isReady() {
+            return ready;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        public long getBytesPerEntry() {
+            return bytesPerEntry;
+        }
+
+        public long getSyncLagMillis() {
+            return syncLagMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Replica Stats - Entries: %d, Bytes/entry: %d, Sync lag: %d ms",
+                    entries, bytesPerEntry, syncLagMillis);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.vietlong.spring_app.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.stereotype.Component;
+
+import com.vietlong.spring_app.config.JwtConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class BlacklistSnapshotStore {
+
+    private static final int MAGIC = 0x4A544953;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int ENTRY_BYTES = 16;
+
+    private final JwtConfig jwtConfig;
+
+    public BlacklistSnapshotStore(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+    }
+
+    public void write(long sequence, long[] entries) throws IOException {
+        Path target = Paths.get(jwtConfig.getBlacklistSnapshotPath()).toAbsolutePath();
+        Path directory = target.getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        int count = entries.length / 2;
+        long size = HEADER_BYTES + (long) count * ENTRY_BYTES;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(sequence);
+            buffer.putLong(System.currentTimeMillis());
+            buffer.putInt(count);
+            buffer.putInt(0);
+            for (long value : entries) {
+                buffer.putLong(value);
+            }
+            buffer.force();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Snapshot read() {
+        Path target = Paths.get(jwtConfig.getBlacklistSnapshotPath()).toAbsolutePath();
+        if (!Files.isRegularFile(target)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("Blacklist snapshot {} không đúng định dạng, bỏ qua", target);
+                return null;
+            }
+            long sequence = buffer.getLong();
+            long createdAtMillis = buffer.getLong();
+            int count = buffer.getInt();
+            buffer.getInt();
+            if (count < 0 || size != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+                log.warn("Blacklist snapshot {} bị cắt cụt, bỏ qua", target);
+                return null;
+            }
+
+            long[] entries = new long[count * 2];
+            buffer.asLongBuffer().get(entries);
+            return new Snapshot(sequence, createdAtMillis, entries);
+        } catch (IOException e) {
+            log.warn("Không thể đọc blacklist snapshot {}: {}", target, e.getMessage());
+            return null;
+        }
+    }
+
+    public static class Snapshot {
+        private final long sequence;
+        private final long createdAtMillis;
+        private final long[] entries;
+
+        public Snapshot(long sequence, long createdAtMillis, long[] entries) {
+            this.sequence = sequence;
+            this.createdAtMillis = createdAtMillis;
+            this.entries = entries;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getCreatedAtMillis() {
+            return createdAtMillis;
+        }
+
+        public long[] getEntries() {
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package com.vietlong.spring_app.service;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.vietlong.spring_app.config.JwtConfig;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "spring.jwt.storage.layout", havingValue = "bucketed")
+public class BucketedTokenStore implements TokenStore {
+
+    private static final Pattern BUCKET_NAME = Pattern.compile("(blacklisted_tokens|active_tokens)_b(\\d{8}|\\d{10})");
+    private static final DateTimeFormatter HOURLY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final DateTimeFormatter DAILY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String MIGRATION_LEASE = "BUCKET_MIGRATION";
+    private static final long MIGRATION_POLL_INTERVAL = 1000L;
+
+    private enum Kind {
+        BLACKLISTED("blacklisted_tokens", "id, jti, user_id, expires_at, blacklisted_at, reason",
+                "blacklisted_at DATETIME(6) NOT NULL, reason VARCHAR(100)"),
+        ACTIVE("active_tokens", "id, jti, user_id, expires_at, created_at, device_info",
+                "created_at DATETIME(6) NOT NULL, device_info VARCHAR(500)");
+
+        private final String table;
+        private final String columns;
+        private final String extraColumns;
+
+        Kind(String table, String columns, String extraColumns) {
+            this.table = table;
+            this.columns = columns;
+            this.extraColumns = extraColumns;
+        }
+
+        private String bucketTable(Bucket bucket) {
+            return table + "_b" + bucket.suffix;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final JwtConfig jwtConfig;
+    private final boolean hourly;
+    private final Map<Kind, ConcurrentMap<String, Bucket>> buckets = new EnumMap<>(Kind.class);
+    private final Object ddlLock = new Object();
+    private final LongAdder droppedBuckets = new LongAdder();
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    public BucketedTokenStore(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            JwtConfig jwtConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.jwtConfig = jwtConfig;
+        this.hourly = "hourly".equals(jwtConfig.getStorageBucketGranularity());
+        for (Kind kind : Kind.values()) {
+            buckets.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    @PostConstruct
+    private void initialize() {
+        synchronized (ddlLock) {
+            LocalDateTime now = LocalDateTime.now();
+            Map<String, String> tables = listTables();
+            load(tables);
+            ensureBuckets(now, horizon(now));
+            if (!plainTables(tables).isEmpty()) {
+                migrateUnderLease();
+            }
+            refreshViews();
+        }
+        log.info("Token storage dạng bucket ({}) đã sẵn sàng: {}", jwtConfig.getStorageBucketGranularity(),
+                getStats());
+    }
+
+    @Override
+    public int insertBlacklistedToken(String jti, String userId, LocalDateTime expiresAt,
+            LocalDateTime blacklistedAt, String reason) {
+        if (!expiresAt.isAfter(LocalDateTime.now())) {
+            return 0;
+        }
+        return jdbcTemplate.update("INSERT IGNORE INTO " + blacklistedTokensTable(expiresAt) + " ("
+                + Kind.BLACKLISTED.columns + ") VALUES (?, ?, ?, ?, ?, ?)", UUID.randomUUID().toString(), jti,
+                userId, Timestamp.valueOf(expiresAt), Timestamp.valueOf(blacklistedAt), reason);
+    }
+
+    @Override
+    public int insertActiveToken(String jti, String userId, LocalDateTime expiresAt, LocalDateTime createdAt,
+            String deviceInfo) {
+        if (!expiresAt.isAfter(LocalDateTime.now())) {
+            return 0;
+        }
+        return jdbcTemplate.update("INSERT IGNORE INTO " + activeTokensTable(expiresAt) + " ("
+                + Kind.ACTIVE.columns + ") VALUES (?, ?, ?, ?, ?, ?)", UUID.randomUUID().toString(), jti, userId,
+                Timestamp.valueOf(expiresAt), Timestamp.valueOf(createdAt), deviceInfo);
+    }
+
+    @Override
+    public void deleteActiveToken(String jti, LocalDateTime expiresAt) {
+        Bucket bucket = findBucket(Kind.ACTIVE, expiresAt);
+        if (bucket != null) {
+            jdbcTemplate.update("DELETE FROM " + Kind.ACTIVE.bucketTable(bucket) + " WHERE jti = ?", jti);
+        }
+    }
+
+    @Override
+    public boolean isBlacklisted(String jti, LocalDateTime expiresAt) {
+        if (expiresAt == null) {
+            return !findInLiveBuckets(List.of(jti)).isEmpty();
+        }
+        Bucket bucket = lookupBucket(Kind.BLACKLISTED, expiresAt);
+        return bucket != null && !findInBucket(bucket, List.of(jti)).isEmpty();
+    }
+
+    @Override
+    public List<String> findBlacklistedJtis(Map<String, LocalDateTime> expiries) {
+        Map<Bucket, List<String>> routed = new HashMap<>();
+        List<String> unrouted = new ArrayList<>();
+        for (Map.Entry<String, LocalDateTime> entry : expiries.entrySet()) {
+            if (entry.getValue() == null) {
+                unrouted.add(entry.getKey());
+                continue;
+            }
+            Bucket bucket = lookupBucket(Kind.BLACKLISTED, entry.getValue());
+            if (bucket != null) {
+                routed.computeIfAbsent(bucket, key -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        List<String> blacklisted = new ArrayList<>();
+        routed.forEach((bucket, jtis) -> blacklisted.addAll(findInBucket(bucket, jtis)));
+        if (!unrouted.isEmpty()) {
+            blacklisted.addAll(findInLiveBuckets(unrouted));
+        }
+        return blacklisted;
+    }
+
+    @Override
+    public int blacklistActiveTokens(Collection<String> userIds, LocalDateTime blacklistedAt, String reason) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userIds", userIds)
+                .addValue("blacklistedAt", Timestamp.valueOf(blacklistedAt))
+                .addValue("reason", reason);
+        int inserted = 0;
+        for (Bucket bucket : liveBuckets(Kind.ACTIVE)) {
+            Bucket target = route(Kind.BLACKLISTED, bucket.start);
+            inserted += namedParameterJdbcTemplate.update("INSERT IGNORE INTO "
+                    + Kind.BLACKLISTED.bucketTable(target) + " (" + Kind.BLACKLISTED.columns + ") "
+                    + "SELECT at.id, at.jti, at.user_id, at.expires_at, :blacklistedAt, :reason FROM "
+                    + Kind.ACTIVE.bucketTable(bucket) + " at "
+                    + "WHERE at.user_id IN (:userIds) AND at.expires_at > :blacklistedAt", params);
+        }
+        return inserted;
+    }
+
+    @Override
+    public int deleteActiveTokens(Collection<String> userIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userIds", userIds);
+        int deleted = 0;
+        for (Bucket bucket : liveBuckets(Kind.ACTIVE)) {
+            deleted += updateBucket(Kind.ACTIVE, bucket, () -> namedParameterJdbcTemplate.update(
+                    "DELETE FROM " + Kind.ACTIVE.bucketTable(bucket) + " WHERE user_id IN (:userIds)", params));
+        }
+        return deleted;
+    }
+
+    @Override
+    public int deleteOrphanedBlacklistedTokens() {
+        return deleteOrphaned(Kind.BLACKLISTED);
+    }
+
+    @Override
+    public int deleteOrphanedActiveTokens() {
+        return deleteOrphaned(Kind.ACTIVE);
+    }
+
+    @Override
+    public long expireBlacklistedTokens(LocalDateTime cutoff) {
+        return expire(Kind.BLACKLISTED, cutoff);
+    }
+
+    @Override
+    public long expireActiveTokens(LocalDateTime cutoff) {
+        return expire(Kind.ACTIVE, cutoff);
+    }
+
+    @Override
+    public String blacklistedTokensTable(LocalDateTime expiresAt) {
+        return Kind.BLACKLISTED.bucketTable(route(Kind.BLACKLISTED, expiresAt));
+    }
+
+    @Override
+    public String activeTokensTable(LocalDateTime expiresAt) {
+        return Kind.ACTIVE.bucketTable(route(Kind.ACTIVE, expiresAt));
+    }
+
+    @Override
+    public StorageStats getStats() {
+        LocalDateTime oldestStart = null;
+        LocalDateTime newestEnd = null;
+        for (Bucket bucket : buckets.get(Kind.BLACKLISTED).values()) {
+            if (oldestStart == null || bucket.start.isBefore(oldestStart)) {
+                oldestStart = bucket.start;
+            }
+            if (newestEnd == null || bucket.end.isAfter(newestEnd)) {
+                newestEnd = bucket.end;
+            }
+        }
+        return new StorageStats("bucketed", jwtConfig.getStorageBucketGranularity(),
+                buckets.get(Kind.BLACKLISTED).size(), buckets.get(Kind.ACTIVE).size(), oldestStart, newestEnd,
+                droppedBuckets.sum());
+    }
+
+    private long expire(Kind kind, LocalDateTime cutoff) {
+        synchronized (ddlLock) {
+            load(listTables());
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime from = cutoff.isAfter(now) ? cutoff : now;
+            boolean created = ensureBuckets(from, horizon(from));
+
+            List<Bucket> expired = new ArrayList<>();
+            for (Bucket bucket : buckets.get(kind).values()) {
+                if (!bucket.end.isAfter(cutoff)) {
+                    expired.add(bucket);
+                }
+            }
+            if (expired.isEmpty()) {
+                if (created) {
+                    refreshViews();
+                }
+                return 0;
+            }
+
+            long removedRows = 0;
+            for (Bucket bucket : expired) {
+                removedRows += jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + kind.bucketTable(bucket),
+                        Long.class);
+                buckets.get(kind).remove(bucket.suffix);
+            }
+            refreshViews();
+            for (Bucket bucket : expired) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + kind.bucketTable(bucket));
+                droppedBuckets.increment();
+            }
+            log.info("Đã drop {} bucket {} hết hạn trước {} ({} dòng)", expired.size(), kind.table, cutoff,
+                    removedRows);
+            return removedRows;
+        }
+    }
+
+    private List<String> findInBucket(Bucket bucket, Collection<String> jtis) {
+        try {
+            return namedParameterJdbcTemplate.queryForList("SELECT jti FROM "
+                    + Kind.BLACKLISTED.bucketTable(bucket) + " WHERE jti IN (:jtis)",
+                    new MapSqlParameterSource("jtis", jtis), String.class);
+        } catch (BadSqlGrammarException e) {
+            forgetBucket(Kind.BLACKLISTED, bucket);
+            return new ArrayList<>();
+        }
+    }
+
+    private List<String> findInLiveBuckets(Collection<String> jtis) {
+        List<Bucket> live = liveBuckets(Kind.BLACKLISTED);
+        if (live.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = union(live, bucket -> "SELECT jti FROM " + Kind.BLACKLISTED.bucketTable(bucket)
+                + " WHERE jti IN (:jtis)");
+        return namedParameterJdbcTemplate.queryForList(sql, new MapSqlParameterSource("jtis", jtis), String.class);
+    }
+
+    private int deleteOrphaned(Kind kind) {
+        int deleted = 0;
+        for (Bucket bucket : liveBuckets(kind)) {
+            deleted += updateBucket(kind, bucket, () -> jdbcTemplate.update("DELETE FROM " + kind.bucketTable(bucket)
+                    + " WHERE user_id NOT IN (SELECT u.id FROM users u)"));
+        }
+        return deleted;
+    }
+
+    private int updateBucket(Kind kind, Bucket bucket, IntSupplier update) {
+        try {
+            return update.getAsInt();
+        } catch (BadSqlGrammarException e) {
+            forgetBucket(kind, bucket);
+            return 0;
+        }
+    }
+
+    private void forgetBucket(Kind kind, Bucket bucket) {
+        if (buckets.get(kind).remove(bucket.suffix, bucket)) {
+            log.warn("Bucket {} không còn tồn tại, có thể đã bị node khác drop", kind.bucketTable(bucket));
+        }
+    }
+
+    private void migrateUnderLease() {
+        while (true) {
+            if (acquireMigrationLease()) {
+                try {
+                    LocalDateTime now = LocalDateTime.now();
+                    for (Kind kind : plainTables(listTables())) {
+                        if (!migrate(kind, now)) {
+                            break;
+                        }
+                    }
+                } finally {
+                    releaseMigrationLease();
+                }
+            }
+            if (plainTables(listTables()).isEmpty()) {
+                load(listTables());
+                return;
+            }
+            log.info("Node khác đang chuyển token storage sang dạng bucket, chờ hoàn tất");
+            try {
+                Thread.sleep(MIGRATION_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Bị ngắt khi chờ chuyển token storage sang dạng bucket", e);
+            }
+        }
+    }
+
+    private boolean acquireMigrationLease() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT IGNORE INTO token_purge_checkpoints (target, cutoff, deleted_count, "
+                + "chunk_count, started_at, version, updated_at) VALUES (?, ?, 0, 0, ?, 0, ?)", MIGRATION_LEASE,
+                now, now, now);
+        return jdbcTemplate.update("UPDATE token_purge_checkpoints SET lease_owner = ?, lease_expires_at = ?, "
+                + "started_at = ?, completed_at = NULL, version = version + 1, updated_at = ? "
+                + "WHERE target = ? AND (lease_owner IS NULL OR lease_expires_at < ?)", leaseOwner,
+                migrationLeaseExpiry(), now, now, MIGRATION_LEASE, now) == 1;
+    }
+
+    private boolean renewMigrationLease() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update("UPDATE token_purge_checkpoints SET lease_expires_at = ?, "
+                + "version = version + 1, updated_at = ? WHERE target = ? AND lease_owner = ?",
+                migrationLeaseExpiry(), now, MIGRATION_LEASE, leaseOwner) == 1;
+    }
+
+    private void releaseMigrationLease() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("UPDATE token_purge_checkpoints SET lease_owner = NULL, lease_expires_at = NULL, "
+                + "completed_at = ?, version = version + 1, updated_at = ? WHERE target = ? AND lease_owner = ?",
+                now, now, MIGRATION_LEASE, leaseOwner);
+    }
+
+    private Timestamp migrationLeaseExpiry() {
+        return Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(jwtConfig.getPurgeLeaseDuration())));
+    }
+
+    private List<Kind> plainTables(Map<String, String> tables) {
+        List<Kind> plain = new ArrayList<>();
+        for (Kind kind : Kind.values()) {
+            String type = tables.get(kind.table);
+            if (type != null && type.toUpperCase(Locale.ROOT).contains("TABLE")) {
+                plain.add(kind);
+            }
+        }
+        return plain;
+    }
+
+    private boolean migrate(Kind kind, LocalDateTime now) {
+        LocalDateTime[] range = jdbcTemplate.queryForObject(
+                "SELECT MIN(expires_at), MAX(expires_at) FROM " + kind.table + " WHERE expires_at > ?",
+                (rs, rowNum) -> new LocalDateTime[] { toLocalDateTime(rs.getTimestamp(1)),
+                        toLocalDateTime(rs.getTimestamp(2)) },
+                Timestamp.valueOf(now));
+
+        int migrated = 0;
+        if (range != null && range[0] != null) {
+            ensureBuckets(range[0], range[1]);
+            for (Bucket bucket : buckets.get(kind).values()) {
+                if (bucket.end.isAfter(range[0]) && !bucket.start.isAfter(range[1])) {
+                    migrated += jdbcTemplate.update("INSERT IGNORE INTO " + kind.bucketTable(bucket) + " ("
+                            + kind.columns + ") SELECT " + kind.columns + " FROM " + kind.table
+                            + " WHERE expires_at >= ? AND expires_at < ?",
+                            Timestamp.valueOf(bucket.start), Timestamp.valueOf(bucket.end));
+                    if (!renewMigrationLease()) {
+                        log.warn("Mất lease chuyển bảng {} sang dạng bucket cho node khác, dừng lại", kind.table);
+                        return false;
+                    }
+                }
+            }
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + kind.table);
+        log.warn("Đã chuyển bảng {} sang dạng bucket ({} dòng còn hiệu lực)", kind.table, migrated);
+        return true;
+    }
+
+    private Bucket route(Kind kind, LocalDateTime expiresAt) {
+        Bucket bucket = findBucket(kind, expiresAt);
+        if (bucket != null) {
+            return bucket;
+        }
+        synchronized (ddlLock) {
+            load(listTables());
+            bucket = findBucket(kind, expiresAt);
+        }
+        if (bucket == null) {
+            throw new IllegalStateException("Chưa có bucket " + kind.table + " cho thời điểm " + expiresAt
+                    + ", bucket chỉ được tạo bởi tác vụ dọn dẹp định kỳ");
+        }
+        return bucket;
+    }
+
+    private Bucket findBucket(Kind kind, LocalDateTime time) {
+        ConcurrentMap<String, Bucket> kindBuckets = buckets.get(kind);
+        Bucket bucket = kindBuckets.get(suffix(bucketStart(time)));
+        if (bucket != null) {
+            return bucket;
+        }
+        for (Bucket candidate : kindBuckets.values()) {
+            if (!candidate.start.isAfter(time) && candidate.end.isAfter(time)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Bucket lookupBucket(Kind kind, LocalDateTime expiresAt) {
+        Bucket bucket = findBucket(kind, expiresAt);
+        if (bucket != null || !expiresAt.isAfter(LocalDateTime.now())) {
+            return bucket;
+        }
+        synchronized (ddlLock) {
+            load(listTables());
+            return findBucket(kind, expiresAt);
+        }
+    }
+
+    private List<Bucket> liveBuckets(Kind kind) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Bucket> live = new ArrayList<>();
+        for (Bucket bucket : buckets.get(kind).values()) {
+            if (bucket.end.isAfter(now)) {
+                live.add(bucket);
+            }
+        }
+        return live;
+    }
+
+    private boolean ensureBuckets(LocalDateTime from, LocalDateTime until) {
+        boolean created = false;
+        ChronoUnit unit = hourly ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+        for (LocalDateTime start = bucketStart(from); !start.isAfter(until); start = start.plus(1, unit)) {
+            Bucket bucket = new Bucket(suffix(start), start, start.plus(1, unit));
+            for (Kind kind : Kind.values()) {
+                created |= createBucket(kind, bucket);
+            }
+        }
+        return created;
+    }
+
+    private boolean createBucket(Kind kind, Bucket bucket) {
+        if (buckets.get(kind).containsKey(bucket.suffix)) {
+            return false;
+        }
+        String table = kind.bucketTable(bucket);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                + "id VARCHAR(255) NOT NULL, jti VARCHAR(255) NOT NULL, user_id VARCHAR(255) NOT NULL, "
+                + "expires_at DATETIME(6) NOT NULL, " + kind.extraColumns + ", "
+                + "PRIMARY KEY (id), CONSTRAINT uk_" + table + "_jti UNIQUE (jti), "
+                + "INDEX idx_" + table + "_user (user_id))");
+        buckets.get(kind).put(bucket.suffix, bucket);
+        return true;
+    }
+
+    private void refreshViews() {
+        for (Kind kind : Kind.values()) {
+            refreshView(kind);
+        }
+    }
+
+    private void refreshView(Kind kind) {
+        List<Bucket> ordered = new ArrayList<>(buckets.get(kind).values());
+        ordered.sort(Comparator.comparing(bucket -> bucket.start));
+        jdbcTemplate.execute("CREATE OR REPLACE VIEW " + kind.table + " AS "
+                + union(ordered, bucket -> "SELECT " + kind.columns + " FROM " + kind.bucketTable(bucket)));
+    }
+
+    private void load(Map<String, String> tables) {
+        Map<Kind, Map<String, Bucket>> found = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            found.put(kind, new HashMap<>());
+        }
+        for (String table : tables.keySet()) {
+            Matcher matcher = BUCKET_NAME.matcher(table);
+            if (!matcher.matches()) {
+                continue;
+            }
+            Kind kind = Kind.BLACKLISTED.table.equals(matcher.group(1)) ? Kind.BLACKLISTED : Kind.ACTIVE;
+            String suffix = matcher.group(2);
+            boolean hourlySuffix = suffix.length() == 10;
+            LocalDateTime start = hourlySuffix ? LocalDateTime.parse(suffix, HOURLY_SUFFIX)
+                    : LocalDate.parse(suffix, DAILY_SUFFIX).atStartOfDay();
+            found.get(kind).put(suffix, new Bucket(suffix, start,
+                    start.plus(1, hourlySuffix ? ChronoUnit.HOURS : ChronoUnit.DAYS)));
+        }
+        for (Kind kind : Kind.values()) {
+            buckets.get(kind).keySet().retainAll(found.get(kind).keySet());
+            buckets.get(kind).putAll(found.get(kind));
+        }
+    }
+
+    private Map<String, String> listTables() {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, String>>) connection -> {
+            Map<String, String> tables = new HashMap<>();
+            try (ResultSet rs = connection.getMetaData().getTables(connection.getCatalog(), connection.getSchema(),
+                    "%", null)) {
+                while (rs.next()) {
+                    tables.put(rs.getString("TABLE_NAME").toLowerCase(Locale.ROOT), rs.getString("TABLE_TYPE"));
+                }
+            }
+            return tables;
+        });
+    }
+
+    private LocalDateTime horizon(LocalDateTime from) {
+        long cleanupInterval = Math.max(jwtConfig.getExpiredTokensCleanupInterval(),
+                jwtConfig.getActiveTokensCleanupInterval());
+        return from.plusHours(jwtConfig.getExpirationHours()).plus(Duration.ofMillis(cleanupInterval * 2));
+    }
+
+    private LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(hourly ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+    }
+
+    private String suffix(LocalDateTime start) {
+        return (hourly ? HOURLY_SUFFIX : DAILY_SUFFIX).format(start);
+    }
+
+    private static String union(List<Bucket> parts, Function<Bucket, String> select) {
+        StringJoiner sql = new StringJoiner(" UNION ALL ");
+        for (Bucket bucket : parts) {
+            sql.add(select.apply(bucket));
+        }
+        return sql.toString();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static final class Bucket {
+        private final String suffix;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Bucket(String suffix, LocalDateTime start, LocalDateTime end) {
+            this.suffix = suffix;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.vietlong.spring_app.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.repository.RevocationEventRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.jwt.revocation.bus", havingValue = "database", matchIfMissing = true)
+public class DatabaseRevocationEventBus implements RevocationEventBus {
+
+    private static final int MAX_TRACKED_GAPS = 10_000;
+
+    private final RevocationEventRepository revocationEventRepository;
+    private final JwtConfig jwtConfig;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<RevocationListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Long, Long> pendingGaps = new ConcurrentHashMap<>();
+    private final LongAdder receivedEvents = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private final Object pollLock = new Object();
+
+    private volatile long lastSequence = -1L;
+    private volatile long lastSyncAtMillis = 0L;
+    private volatile long lastLatencyMillis = 0L;
+    private volatile boolean gapOverflow = false;
+
+    public DatabaseRevocationEventBus(RevocationEventRepository revocationEventRepository, JwtConfig jwtConfig) {
+        this.revocationEventRepository = revocationEventRepository;
+        this.jwtConfig = jwtConfig;
+    }
+
+    @Override
+    public void publish(RevocationEvent event) {
+        event.setOriginNode(nodeId);
+        revocationEventRepository.save(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+            return;
+        }
+        dispatch(event);
+    }
+
+    @Override
+    public void subscribe(RevocationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public long getLastSyncAtMillis() {
+        return lastSyncAtMillis;
+    }
+
+    @Override
+    public long getSafeSequence() {
+        long sequence = lastSequence;
+        if (sequence < 0) {
+            return -1L;
+        }
+        for (Long gap : pendingGaps.keySet()) {
+            sequence = Math.min(sequence, gap - 1);
+        }
+        return sequence;
+    }
+
+    @Override
+    public boolean replay(long afterSequence, RevocationListener listener) {
+        if (afterSequence > revocationEventRepository.findMaxId()) {
+            return false;
+        }
+
+        int batchSize = jwtConfig.getRevocationBatchSize();
+        long cursor = afterSequence;
+        List<RevocationEvent> events;
+        do {
+            events = revocationEventRepository.findAfter(cursor, PageRequest.of(0, batchSize));
+            for (RevocationEvent event : events) {
+                listener.onRevocation(event);
+                cursor = event.getId();
+            }
+        } while (events.size() == batchSize);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.jwt.revocation.poll-interval}")
+    public void poll() {
+        synchronized (pollLock) {
+            try {
+                long nowMillis = System.currentTimeMillis();
+                if (lastSequence < 0) {
+                    initializeCursor();
+                } else {
+                    pollAfterCursor(nowMillis);
+                    retryGaps(nowMillis);
+                }
+                lastSyncAtMillis = System.currentTimeMillis();
+            } catch (Exception e) {
+                log.warn("Lỗi khi đồng bộ revocation events: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public PropagationStats getStats() {
+        long received = receivedEvents.sum();
+        long average = received == 0 ? 0L : totalLatencyMillis.sum() / received;
+        long syncLag = lastSyncAtMillis == 0L ? -1L : System.currentTimeMillis() - lastSyncAtMillis;
+        return new PropagationStats("database", nodeId, lastSequence, received, average,
+                maxLatencyMillis.get(), lastLatencyMillis, syncLag);
+    }
+
+    private void initializeCursor() {
+        long maxSequence = revocationEventRepository.findMaxId();
+        LocalDateTime graceStart = LocalDateTime.now().minus(Duration.ofMillis(jwtConfig.getRevocationGapGrace()));
+        for (RevocationEvent event : revocationEventRepository.findByCreatedAtAfter(graceStart)) {
+            dispatch(event);
+        }
+        lastSequence = maxSequence;
+    }
+
+    private void pollAfterCursor(long nowMillis) {
+        int batchSize = jwtConfig.getRevocationBatchSize();
+        List<RevocationEvent> events;
+        do {
+            events = revocationEventRepository.findAfter(lastSequence, PageRequest.of(0, batchSize));
+            long expected = lastSequence + 1;
+            for (RevocationEvent event : events) {
+                long untracked = trackGaps(expected, event.getId(), nowMillis);
+                if (untracked >= 0) {
+                    if (!gapOverflow) {
+                        log.warn("Đã theo dõi tối đa {} revocation event bị thiếu, giữ cursor tại {} cho đến khi các gap được xử lý",
+                                MAX_TRACKED_GAPS, untracked - 1);
+                    }
+                    gapOverflow = true;
+                    lastSequence = untracked - 1;
+                    return;
+                }
+                if (gapOverflow) {
+                    log.info("Đã hết tràn gap, tiếp tục đồng bộ revocation events từ {}", event.getId());
+                    gapOverflow = false;
+                }
+                receive(event);
+                expected = event.getId() + 1;
+                lastSequence = event.getId();
+            }
+        } while (events.size() == batchSize);
+    }
+
+    private void retryGaps(long nowMillis) {
+        if (pendingGaps.isEmpty()) {
+            return;
+        }
+        for (RevocationEvent event : revocationEventRepository.findAllById(pendingGaps.keySet())) {
+            receive(event);
+            pendingGaps.remove(event.getId());
+        }
+        long graceStart = nowMillis - jwtConfig.getRevocationGapGrace();
+        pendingGaps.values().removeIf(firstSeenAt -> firstSeenAt < graceStart);
+    }
+
+    private long trackGaps(long expected, long actual, long nowMillis) {
+        for (long sequence = expected; sequence < actual; sequence++) {
+            if (!pendingGaps.containsKey(sequence) && pendingGaps.size() >= MAX_TRACKED_GAPS) {
+                return sequence;
+            }
+            pendingGaps.putIfAbsent(sequence, nowMillis);
+        }
+        return -1L;
+    }
+
+    private void receive(RevocationEvent event) {
+        if (nodeId.equals(event.getOriginNode())) {
+            return;
+        }
+        if (event.getCreatedAt() != null) {
+            long latency = Math.max(0L, System.currentTimeMillis()
+                    - event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            receivedEvents.increment();
+            totalLatencyMillis.add(latency);
+            maxLatencyMillis.accumulateAndGet(latency, Math::max);
+            lastLatencyMillis = latency;
+        }
+        dispatch(event);
+    }
+
+    private void dispatch(RevocationEvent event) {
+        for (RevocationListener listener : listeners) {
+            try {
+                listener.onRevocation(event);
+            } catch (Exception e) {
+                log.error("Lỗi khi xử lý revocation event {}: {}", event, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.vietlong.spring_app.service;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.vietlong.spring_app.common.JtiHash;
+
+public class DecayingCountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_SHIFT = 31;
+
+    private final AtomicLongArray cells;
+    private final int width;
+    private final int widthMask;
+    private final long decayIntervalNanos;
+    private final long seed = new SecureRandom().nextLong();
+    private final long originNanos = System.nanoTime();
+
+    public DecayingCountMinSketch(int width, long decayIntervalMillis) {
+        this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.widthMask = this.width - 1;
+        this.cells = new AtomicLongArray(DEPTH * this.width);
+        this.decayIntervalNanos = decayIntervalMillis * 1_000_000L;
+    }
+
+    public int increment(String key) {
+        long hash = JtiHash.hash64(key, seed);
+        int epoch = currentEpoch();
+        int[] indexes = new int[DEPTH];
+        int minimum = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            indexes[row] = indexOf(hash, row);
+            minimum = Math.min(minimum, decayed(cells.get(indexes[row]), epoch));
+        }
+        int target = minimum == Integer.MAX_VALUE ? minimum : minimum + 1;
+        for (int index : indexes) {
+            raiseCell(index, epoch, target);
+        }
+        return target;
+    }
+
+    public int estimate(String key) {
+        long hash = JtiHash.hash64(key, seed);
+        int epoch = currentEpoch();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, decayed(cells.get(indexOf(hash, row)), epoch));
+        }
+        return estimate;
+    }
+
+    public long estimatedBytes() {
+        return (long) cells.length() * Long.BYTES;
+    }
+
+    private void raiseCell(int index, int epoch, int target) {
+        while (true) {
+            long current = cells.get(index);
+            if (decayed(current, epoch) >= target) {
+                return;
+            }
+            if (cells.compareAndSet(index, current, pack(epoch, target))) {
+                return;
+            }
+        }
+    }
+
+    private int indexOf(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & widthMask);
+    }
+
+    int currentEpoch() {
+        return (int) ((System.nanoTime() - originNanos) / decayIntervalNanos);
+    }
+
+    static int decayed(long cell, int epoch) {
+        int count = (int) cell;
+        int age = epoch - (int) (cell >>> 32);
+        if (age <= 0) {
+            return count;
+        }
+        return age >= MAX_SHIFT ? 0 : count >>> age;
+    }
+
+    static long pack(int epoch, int count) {
+        return ((long) epoch << 32) | (count & 0xffffffffL);
+    }
+}
@@ -0,0 +1,52 @@
+package com.vietlong.spring_app.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class DecayingHeavyHitters {
+
+    private static final int RETAINED_EPOCHS = 16;
+
+    private final DecayingCountMinSketch sketch;
+    private final Cache<String, AtomicLong> counts;
+
+    public DecayingHeavyHitters(int sketchWidth, int capacity, long decayIntervalMillis) {
+        this.sketch = new DecayingCountMinSketch(sketchWidth, decayIntervalMillis);
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .expireAfterAccess(Duration.ofMillis(decayIntervalMillis * RETAINED_EPOCHS))
+                .build();
+    }
+
+    public int increment(String key) {
+        sketch.increment(key);
+        AtomicLong counter = counts.get(key, k -> new AtomicLong());
+        int epoch = sketch.currentEpoch();
+        while (true) {
+            long current = counter.get();
+            int count = DecayingCountMinSketch.decayed(current, epoch);
+            int next = count == Integer.MAX_VALUE ? count : count + 1;
+            if (counter.compareAndSet(current, DecayingCountMinSketch.pack(epoch, next))) {
+                return next;
+            }
+        }
+    }
+
+    public int count(String key) {
+        if (sketch.estimate(key) == 0) {
+            return 0;
+        }
+        AtomicLong counter = counts.getIfPresent(key);
+        if (counter == null) {
+            return 0;
+        }
+        return DecayingCountMinSketch.decayed(counter.get(), sketch.currentEpoch());
+    }
+
+    public long trackedKeys() {
+        return counts.estimatedSize();
+    }
+}
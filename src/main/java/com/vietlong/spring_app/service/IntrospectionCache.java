@@ -0,0 +1,230 @@
+package com.vietlong.spring_app.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.dto.response.IntrospectTokenResponse;
+import com.vietlong.spring_app.model.RevocationEvent;
+
+@Component
+public class IntrospectionCache implements RevocationListener {
+
+    private static final IntrospectTokenResponse INVALID = IntrospectTokenResponse.builder()
+            .isValid(false)
+            .build();
+
+    private final TokenGenerationService tokenGenerationService;
+    private final RevocationWatermarkService revocationWatermarkService;
+    private final BlacklistReplica blacklistReplica;
+    private final long maxTtlNanos;
+    private final Cache<String, ValidEntry> validTokens;
+    private final Cache<String, Boolean> invalidTokens;
+    private final ConcurrentMap<String, String> digestsByJti = new ConcurrentHashMap<>();
+    private final LongAdder revalidationFailures = new LongAdder();
+    private final LongAdder staleReplicaMisses = new LongAdder();
+
+    public IntrospectionCache(JwtConfig jwtConfig, TokenGenerationService tokenGenerationService,
+            RevocationWatermarkService revocationWatermarkService, BlacklistReplica blacklistReplica,
+            RevocationEventBus revocationEventBus) {
+        this.tokenGenerationService = tokenGenerationService;
+        this.revocationWatermarkService = revocationWatermarkService;
+        this.blacklistReplica = blacklistReplica;
+        this.maxTtlNanos = Duration.ofMillis(jwtConfig.getIntrospectionCacheMaxTtl()).toNanos();
+        this.validTokens = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getIntrospectionCacheMaxSize())
+                .expireAfter(new ValidEntryExpiry())
+                .removalListener((String digest, ValidEntry entry, RemovalCause cause) -> {
+                    if (entry != null && entry.response.getJti() != null) {
+                        digestsByJti.remove(entry.response.getJti(), digest);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.invalidTokens = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getIntrospectionNegativeCacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(jwtConfig.getIntrospectionNegativeCacheTtl()))
+                .recordStats()
+                .build();
+        revocationEventBus.subscribe(this);
+    }
+
+    public IntrospectTokenResponse get(String digest) {
+        ValidEntry entry = validTokens.getIfPresent(digest);
+        if (entry != null) {
+            if (!blacklistReplica.isFresh()) {
+                staleReplicaMisses.increment();
+                return null;
+            }
+            if (isStillValid(entry)) {
+                return entry.response;
+            }
+            revalidationFailures.increment();
+            validTokens.invalidate(digest);
+            return null;
+        }
+        return invalidTokens.getIfPresent(digest) != null ? INVALID : null;
+    }
+
+    public IntrospectTokenResponse putValid(String digest, IntrospectTokenResponse response, String userId,
+            long generation, Instant issuedAt, Instant expiresAt) {
+        if (expiresAt == null) {
+            return response;
+        }
+        validTokens.put(digest, new ValidEntry(response, userId, generation, issuedAt, expiresAt));
+        if (response.getJti() != null) {
+            digestsByJti.put(response.getJti(), digest);
+            if (blacklistReplica.contains(response.getJti())) {
+                return putInvalid(digest);
+            }
+        }
+        return response;
+    }
+
+    public IntrospectTokenResponse putInvalid(String digest) {
+        validTokens.invalidate(digest);
+        invalidTokens.put(digest, Boolean.TRUE);
+        return INVALID;
+    }
+
+    public IntrospectTokenResponse invalid() {
+        return INVALID;
+    }
+
+    @Override
+    public void onRevocation(RevocationEvent event) {
+        if (!event.isTokenRevocation() || event.getJti() == null) {
+            return;
+        }
+        String digest = digestsByJti.remove(event.getJti());
+        if (digest != null) {
+            validTokens.invalidate(digest);
+        }
+    }
+
+    public IntrospectionStats getStats() {
+        CacheStats validStats = validTokens.stats();
+        CacheStats invalidStats = invalidTokens.stats();
+        return new IntrospectionStats(validTokens.estimatedSize(), validStats.hitCount(), validStats.missCount(),
+                invalidTokens.estimatedSize(), invalidStats.hitCount(), revalidationFailures.sum(),
+                staleReplicaMisses.sum());
+    }
+
+    private boolean isStillValid(ValidEntry entry) {
+        if (!Instant.now().isBefore(entry.expiresAt)) {
+            return false;
+        }
+        if (revocationWatermarkService.isRevoked(entry.issuedAt)) {
+            return false;
+        }
+        if (entry.response.getJti() != null && blacklistReplica.contains(entry.response.getJti())) {
+            return false;
+        }
+        try {
+            return entry.userId == null || tokenGenerationService.isCurrent(entry.userId, entry.generation);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static final class ValidEntry {
+        private final IntrospectTokenResponse response;
+        private final String userId;
+        private final long generation;
+        private final Instant issuedAt;
+        private final Instant expiresAt;
+
+        private ValidEntry(IntrospectTokenResponse response, String userId, long generation, Instant issuedAt,
+                Instant expiresAt) {
+            this.response = response;
+            this.userId = userId;
+            this.generation = generation;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final class ValidEntryExpiry implements Expiry<String, ValidEntry> {
+
+        @Override
+        public long expireAfterCreate(String key, ValidEntry value, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), value.expiresAt).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ValidEntry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ValidEntry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public static class IntrospectionStats {
+        private final long validSize;
+        private final long validHits;
+        private final long validMisses;
+        private final long invalidSize;
+        private final long invalidHits;
+        private final long revalidationFailures;
+        private final long staleReplicaMisses;
+
+        public IntrospectionStats(long validSize, long validHits, long validMisses, long invalidSize,
+                long invalidHits, long revalidationFailures, long staleReplicaMisses) {
+            this.validSize = validSize;
+            this.validHits = validHits;
+            this.validMisses = validMisses;
+            this.invalidSize = invalidSize;
+            this.invalidHits = invalidHits;
+            this.revalidationFailures = revalidationFailures;
+            this.staleReplicaMisses = staleReplicaMisses;
+        }
+
+        public long getValidSize() {
+            return validSize;
+        }
+
+        public long getValidHits() {
+            return validHits;
+        }
+
+        public long getValidMisses() {
+            return validMisses;
+        }
+
+        public long getInvalidSize() {
+            return invalidSize;
+        }
+
+        public long getInvalidHits() {
+            return invalidHits;
+        }
+
+        public long getRevalidationFailures() {
+            return revalidationFailures;
+        }
+
+        public long getStaleReplicaMisses() {
+            return staleReplicaMisses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Introspection Stats - Valid: %d (hits %d), Invalid: %d (hits %d), Revalidated: %d, Stale replica: %d",
+                    validSize, validHits, invalidSize, invalidHits, revalidationFailures, staleReplicaMisses);
+        }
+    }
+}
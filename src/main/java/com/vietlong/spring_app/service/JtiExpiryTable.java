@@ -0,0 +1,261 @@
+package com.vietlong.spring_app.service;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+public class JtiExpiryTable {
+
+    private static final long EMPTY = 0L;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final long TICK_SECONDS = 60L;
+    private static final int WHEEL_SLOTS = 1 << 11;
+    private static final int WHEEL_MASK = WHEEL_SLOTS - 1;
+
+    private final StampedLock lock = new StampedLock();
+    private final long[][] wheel = new long[WHEEL_SLOTS][];
+    private final int[] wheelSizes = new int[WHEEL_SLOTS];
+    private long[] hashes = new long[INITIAL_CAPACITY];
+    private long[] expiries = new long[INITIAL_CAPACITY];
+    private int size = 0;
+    private long lastExpiredTick = Long.MIN_VALUE;
+
+    public boolean contains(long jtiHash, long nowEpochSecond) {
+        long hash = normalize(jtiHash);
+        long stamp = lock.tryOptimisticRead();
+        boolean found = probe(hash, nowEpochSecond);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = probe(hash, nowEpochSecond);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    public void put(long jtiHash, long expiresAtEpochSecond) {
+        long hash = normalize(jtiHash);
+        long stamp = lock.writeLock();
+        try {
+            int index = indexOf(hash);
+            if (index >= 0) {
+                expiries[index] = Math.max(expiries[index], expiresAtEpochSecond);
+                return;
+            }
+            if ((size + 1) * 2 > hashes.length) {
+                resize(hashes.length * 2);
+            }
+            insert(hash, expiresAtEpochSecond);
+            size++;
+            addToWheel(hash, expiresAtEpochSecond);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int expire(long nowEpochSecond) {
+        long stamp = lock.writeLock();
+        try {
+            long nowTick = Math.floorDiv(nowEpochSecond, TICK_SECONDS);
+            long fromTick = lastExpiredTick == Long.MIN_VALUE ? nowTick - WHEEL_SLOTS : lastExpiredTick + 1;
+            fromTick = Math.max(fromTick, nowTick - WHEEL_SLOTS);
+
+            int removed = 0;
+            for (long tick = fromTick; tick < nowTick; tick++) {
+                removed += expireSlot((int) (tick & WHEEL_MASK), nowEpochSecond);
+            }
+            lastExpiredTick = nowTick - 1;
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long[] exportEntries(long nowEpochSecond) {
+        long stamp = lock.readLock();
+        try {
+            long[] entries = new long[size * 2];
+            int count = 0;
+            for (int i = 0; i < hashes.length; i++) {
+                if (hashes[i] != EMPTY && expiries[i] > nowEpochSecond) {
+                    entries[count++] = hashes[i];
+                    entries[count++] = expiries[i];
+                }
+            }
+            return count == entries.length ? entries : Arrays.copyOf(entries, count);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long estimatedBytes() {
+        long stamp = lock.readLock();
+        try {
+            long bytes = (long) hashes.length * Long.BYTES * 2;
+            for (long[] slot : wheel) {
+                if (slot != null) {
+                    bytes += (long) slot.length * Long.BYTES;
+                }
+            }
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            hashes = new long[INITIAL_CAPACITY];
+            expiries = new long[INITIAL_CAPACITY];
+            size = 0;
+            Arrays.fill(wheel, null);
+            Arrays.fill(wheelSizes, 0);
+            lastExpiredTick = Long.MIN_VALUE;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean probe(long hash, long nowEpochSecond) {
+        long[] currentHashes = hashes;
+        long[] currentExpiries = expiries;
+        if (currentHashes.length != currentExpiries.length) {
+            return false;
+        }
+        int mask = currentHashes.length - 1;
+        int index = spread(hash) & mask;
+        for (int i = 0; i <= mask; i++) {
+            long candidate = currentHashes[index];
+            if (candidate == EMPTY) {
+                return false;
+            }
+            if (candidate == hash) {
+                return currentExpiries[index] > nowEpochSecond;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    private int indexOf(long hash) {
+        int mask = hashes.length - 1;
+        int index = spread(hash) & mask;
+        while (hashes[index] != EMPTY) {
+            if (hashes[index] == hash) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(long hash, long expiresAtEpochSecond) {
+        int mask = hashes.length - 1;
+        int index = spread(hash) & mask;
+        while (hashes[index] != EMPTY) {
+            index = (index + 1) & mask;
+        }
+        hashes[index] = hash;
+        expiries[index] = expiresAtEpochSecond;
+    }
+
+    private void removeAt(int index) {
+        int mask = hashes.length - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (hashes[next] != EMPTY) {
+            int home = spread(hashes[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                hashes[hole] = hashes[next];
+                expiries[hole] = expiries[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        hashes[hole] = EMPTY;
+        expiries[hole] = 0L;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldHashes = hashes;
+        long[] oldExpiries = expiries;
+        long[] newHashes = new long[capacity];
+        long[] newExpiries = new long[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != EMPTY) {
+                int index = spread(oldHashes[i]) & mask;
+                while (newHashes[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                newHashes[index] = oldHashes[i];
+                newExpiries[index] = oldExpiries[i];
+            }
+        }
+        expiries = newExpiries;
+        hashes = newHashes;
+    }
+
+    private void addToWheel(long hash, long expiresAtEpochSecond) {
+        int slot = slotOf(expiresAtEpochSecond);
+        long[] entries = wheel[slot];
+        if (entries == null) {
+            entries = new long[8];
+            wheel[slot] = entries;
+        } else if (wheelSizes[slot] == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            wheel[slot] = entries;
+        }
+        entries[wheelSizes[slot]++] = hash;
+    }
+
+    private int expireSlot(int slot, long nowEpochSecond) {
+        long[] entries = wheel[slot];
+        int count = wheelSizes[slot];
+        if (entries == null || count == 0) {
+            return 0;
+        }
+
+        wheel[slot] = null;
+        wheelSizes[slot] = 0;
+
+        int removed = 0;
+        for (int i = 0; i < count; i++) {
+            int index = indexOf(entries[i]);
+            if (index < 0) {
+                continue;
+            }
+            if (expiries[index] <= nowEpochSecond) {
+                removeAt(index);
+                removed++;
+            } else {
+                addToWheel(entries[i], expiries[index]);
+            }
+        }
+        return removed;
+    }
+
+    private static int slotOf(long epochSecond) {
+        return (int) (Math.floorDiv(epochSecond, TICK_SECONDS) & WHEEL_MASK);
+    }
+
+    private static long normalize(long hash) {
+        return hash == EMPTY ? 1L : hash;
+    }
+
+    private static int spread(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
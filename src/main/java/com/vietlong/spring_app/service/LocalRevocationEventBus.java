@@ -0,0 +1,78 @@
+package com.vietlong.spring_app.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.vietlong.spring_app.model.RevocationEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.jwt.revocation.bus", havingValue = "local")
+public class LocalRevocationEventBus implements RevocationEventBus {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<RevocationListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(RevocationEvent event) {
+        event.setOriginNode(nodeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+            return;
+        }
+        dispatch(event);
+    }
+
+    @Override
+    public void subscribe(RevocationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public long getLastSyncAtMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long getSafeSequence() {
+        return -1L;
+    }
+
+    @Override
+    public boolean replay(long afterSequence, RevocationListener listener) {
+        return false;
+    }
+
+    @Override
+    public PropagationStats getStats() {
+        return new PropagationStats("local", nodeId, 0L, 0L, 0L, 0L, 0L, 0L);
+    }
+
+    private void dispatch(RevocationEvent event) {
+        for (RevocationListener listener : listeners) {
+            try {
+                listener.onRevocation(event);
+            } catch (Exception e) {
+                log.error("Lỗi khi xử lý revocation event {}: {}", event, e.getMessage(), e);
+            }
+        }
+    }
+}
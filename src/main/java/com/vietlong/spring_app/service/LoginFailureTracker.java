@@ -0,0 +1,61 @@
+package com.vietlong.spring_app.service;
+
+import java.util.Locale;
+
+import org.springframework.stereotype.Component;
+
+import com.vietlong.spring_app.config.LoginProtectionConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class LoginFailureTracker {
+
+    private final LoginProtectionConfig loginProtectionConfig;
+    private final DecayingHeavyHitters accountFailures;
+    private final DecayingHeavyHitters ipFailures;
+    private final Counter blockedByAccount;
+    private final Counter blockedByIp;
+
+    public LoginFailureTracker(LoginProtectionConfig loginProtectionConfig, MeterRegistry meterRegistry) {
+        this.loginProtectionConfig = loginProtectionConfig;
+        this.accountFailures = new DecayingHeavyHitters(loginProtectionConfig.getSketchWidth(),
+                loginProtectionConfig.getHeavyHitterCapacity(), loginProtectionConfig.getDecayInterval());
+        this.ipFailures = new DecayingHeavyHitters(loginProtectionConfig.getSketchWidth(),
+                loginProtectionConfig.getHeavyHitterCapacity(), loginProtectionConfig.getDecayInterval());
+        this.blockedByAccount = Counter.builder("login.blocked").tag("scope", "account").register(meterRegistry);
+        this.blockedByIp = Counter.builder("login.blocked").tag("scope", "ip").register(meterRegistry);
+    }
+
+    public boolean isBlocked(String email, String clientIp) {
+        if (!loginProtectionConfig.isEnabled()) {
+            return false;
+        }
+        if (email != null && accountFailures.count(normalize(email)) >= loginProtectionConfig.getAccountThreshold()) {
+            blockedByAccount.increment();
+            return true;
+        }
+        if (clientIp != null && ipFailures.count(clientIp) >= loginProtectionConfig.getIpThreshold()) {
+            blockedByIp.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        if (!loginProtectionConfig.isEnabled()) {
+            return;
+        }
+        if (email != null) {
+            accountFailures.increment(normalize(email));
+        }
+        if (clientIp != null) {
+            ipFailures.increment(clientIp);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,81 @@
+package com.vietlong.spring_app.service;
+
+import com.vietlong.spring_app.model.RevocationEvent;
+
+public interface RevocationEventBus {
+
+    void publish(RevocationEvent event);
+
+    void subscribe(RevocationListener listener);
+
+    String getNodeId();
+
+    long getLastSyncAtMillis();
+
+    long getSafeSequence();
+
+    boolean replay(long afterSequence, RevocationListener listener);
+
+    PropagationStats getStats();
+
+    class PropagationStats {
+        private final String backend;
+        private final String nodeId;
+        private final long lastSequence;
+        private final long receivedEvents;
+        private final long averageLatencyMillis;
+        private final long maxLatencyMillis;
+        private final long lastLatencyMillis;
+        private final long syncLagMillis;
+
+        public PropagationStats(String backend, String nodeId, long lastSequence, long receivedEvents,
+                long averageLatencyMillis, long maxLatencyMillis, long lastLatencyMillis, long syncLagMillis) {
+            this.backend = backend;
+            this.nodeId = nodeId;
+            this.lastSequence = lastSequence;
+            this.receivedEvents = receivedEvents;
+            this.averageLatencyMillis = averageLatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+            this.lastLatencyMillis = lastLatencyMillis;
+            this.syncLagMillis = syncLagMillis;
+        }
+
+        public String getBackend() {
+            return backend;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        public long getReceivedEvents() {
+            return receivedEvents;
+        }
+
+        public long getAverageLatencyMillis() {
+            return averageLatencyMillis;
+        }
+
+        public long getMaxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+
+        public long getLastLatencyMillis() {
+            return lastLatencyMillis;
+        }
+
+        public long getSyncLagMillis() {
+            return syncLagMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Propagation Stats - Backend: %s, Received: %d, Avg latency: %d ms, Max latency: %d ms",
+                    backend, receivedEvents, averageLatencyMillis, maxLatencyMillis);
+        }
+    }
+}
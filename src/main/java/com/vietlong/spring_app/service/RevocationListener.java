@@ -0,0 +1,9 @@
+package com.vietlong.spring_app.service;
+
+import com.vietlong.spring_app.model.RevocationEvent;
+
+@FunctionalInterface
+public interface RevocationListener {
+
+    void onRevocation(RevocationEvent event);
+}
@@ -0,0 +1,121 @@
+package com.vietlong.spring_app.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.exception.AppException;
+import com.vietlong.spring_app.exception.ErrorCode;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.model.RevocationType;
+import com.vietlong.spring_app.model.RevocationWatermark;
+import com.vietlong.spring_app.repository.RevocationWatermarkRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class RevocationWatermarkService implements RevocationListener {
+
+    private static final String GLOBAL_WATERMARK_ID = "global";
+
+    private final RevocationWatermarkRepository revocationWatermarkRepository;
+    private final RevocationEventBus revocationEventBus;
+    private final JwtConfig jwtConfig;
+
+    private volatile long issuedBeforeEpochSecond = 0L;
+
+    public RevocationWatermarkService(RevocationWatermarkRepository revocationWatermarkRepository,
+            RevocationEventBus revocationEventBus, JwtConfig jwtConfig) {
+        this.revocationWatermarkRepository = revocationWatermarkRepository;
+        this.revocationEventBus = revocationEventBus;
+        this.jwtConfig = jwtConfig;
+        revocationEventBus.subscribe(this);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${spring.jwt.revocation.watermark-refresh-interval}",
+            initialDelayString = "${spring.jwt.revocation.watermark-refresh-interval}")
+    public void refresh() {
+        try {
+            revocationWatermarkRepository.findById(GLOBAL_WATERMARK_ID)
+                    .ifPresent(watermark -> advance(toEpochSecond(watermark.getIssuedBefore())));
+        } catch (Exception e) {
+            log.error("Lỗi khi nạp global revocation watermark: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isRevoked(Instant issuedAt) {
+        long watermark = issuedBeforeEpochSecond;
+        if (watermark == 0L) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getEpochSecond() < watermark;
+    }
+
+    @Transactional
+    public LocalDateTime revokeIssuedBefore(LocalDateTime issuedBefore, String reason) throws AppException {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long epochSecond = ceilEpochSecond(issuedBefore == null || issuedBefore.isAfter(now) ? now : issuedBefore);
+            LocalDateTime watermarkTime = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond),
+                    ZoneId.systemDefault());
+
+            Optional<RevocationWatermark> existing = revocationWatermarkRepository.findById(GLOBAL_WATERMARK_ID);
+            if (existing.isPresent() && toEpochSecond(existing.get().getIssuedBefore()) >= epochSecond) {
+                return existing.get().getIssuedBefore();
+            }
+
+            RevocationWatermark watermark = existing
+                    .orElseGet(() -> new RevocationWatermark(GLOBAL_WATERMARK_ID, watermarkTime, reason));
+            watermark.setIssuedBefore(watermarkTime);
+            watermark.setReason(reason);
+            revocationWatermarkRepository.save(watermark);
+
+            revocationEventBus.publish(new RevocationEvent(epochSecond,
+                    watermarkTime.plusHours(jwtConfig.getExpirationHours())));
+            log.warn("Đã thu hồi toàn bộ token phát hành trước {}: {}", watermarkTime, reason);
+            return watermarkTime;
+        } catch (Exception e) {
+            throw new AppException(ErrorCode.GLOBAL_REVOCATION_FAILED);
+        }
+    }
+
+    public LocalDateTime getIssuedBefore() {
+        long watermark = issuedBeforeEpochSecond;
+        if (watermark == 0L) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(watermark), ZoneId.systemDefault());
+    }
+
+    @Override
+    public void onRevocation(RevocationEvent event) {
+        if (event.getType() != RevocationType.GLOBAL || event.getGeneration() == null) {
+            return;
+        }
+        advance(event.getGeneration());
+    }
+
+    private synchronized void advance(long epochSecond) {
+        if (epochSecond > issuedBeforeEpochSecond) {
+            issuedBeforeEpochSecond = epochSecond;
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static long ceilEpochSecond(LocalDateTime dateTime) {
+        Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getNano() == 0 ? instant.getEpochSecond() : instant.getEpochSecond() + 1;
+    }
+}
@@ -0,0 +1,107 @@
+package com.vietlong.spring_app.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.vietlong.spring_app.repository.ActiveTokenRepository;
+import com.vietlong.spring_app.repository.BlacklistedTokenRepository;
+import com.vietlong.spring_app.service.TokenPurgeEngine.Target;
+
+@Component
+@ConditionalOnProperty(name = "spring.jwt.storage.layout", havingValue = "table", matchIfMissing = true)
+public class TableTokenStore implements TokenStore {
+
+    private static final String BLACKLISTED_TOKENS_TABLE = "blacklisted_tokens";
+    private static final String ACTIVE_TOKENS_TABLE = "active_tokens";
+
+    private final BlacklistedTokenRepository blacklistedTokenRepository;
+    private final ActiveTokenRepository activeTokenRepository;
+    private final TokenPurgeEngine tokenPurgeEngine;
+
+    public TableTokenStore(BlacklistedTokenRepository blacklistedTokenRepository,
+            ActiveTokenRepository activeTokenRepository, TokenPurgeEngine tokenPurgeEngine) {
+        this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.activeTokenRepository = activeTokenRepository;
+        this.tokenPurgeEngine = tokenPurgeEngine;
+    }
+
+    @Override
+    public int insertBlacklistedToken(String jti, String userId, LocalDateTime expiresAt,
+            LocalDateTime blacklistedAt, String reason) {
+        return blacklistedTokenRepository.insertIfAbsent(UUID.randomUUID().toString(), jti, userId, expiresAt,
+                blacklistedAt, reason);
+    }
+
+    @Override
+    public int insertActiveToken(String jti, String userId, LocalDateTime expiresAt, LocalDateTime createdAt,
+            String deviceInfo) {
+        return activeTokenRepository.insertIfAbsent(UUID.randomUUID().toString(), jti, userId, expiresAt,
+                createdAt, deviceInfo);
+    }
+
+    @Override
+    public void deleteActiveToken(String jti, LocalDateTime expiresAt) {
+        activeTokenRepository.deleteByJti(jti);
+    }
+
+    @Override
+    public boolean isBlacklisted(String jti, LocalDateTime expiresAt) {
+        return blacklistedTokenRepository.existsByJti(jti);
+    }
+
+    @Override
+    public List<String> findBlacklistedJtis(Map<String, LocalDateTime> expiries) {
+        return blacklistedTokenRepository.findJtisIn(expiries.keySet());
+    }
+
+    @Override
+    public int blacklistActiveTokens(Collection<String> userIds, LocalDateTime blacklistedAt, String reason) {
+        return blacklistedTokenRepository.insertFromActiveTokens(userIds, blacklistedAt, reason);
+    }
+
+    @Override
+    public int deleteActiveTokens(Collection<String> userIds) {
+        return activeTokenRepository.deleteAllByUserIdIn(userIds);
+    }
+
+    @Override
+    public int deleteOrphanedBlacklistedTokens() {
+        return blacklistedTokenRepository.deleteOrphanedBlacklistedTokens();
+    }
+
+    @Override
+    public int deleteOrphanedActiveTokens() {
+        return activeTokenRepository.deleteOrphanedActiveTokens();
+    }
+
+    @Override
+    public long expireBlacklistedTokens(LocalDateTime cutoff) {
+        return tokenPurgeEngine.purge(Target.BLACKLISTED_TOKENS, cutoff);
+    }
+
+    @Override
+    public long expireActiveTokens(LocalDateTime cutoff) {
+        return tokenPurgeEngine.purge(Target.ACTIVE_TOKENS, cutoff);
+    }
+
+    @Override
+    public String blacklistedTokensTable(LocalDateTime expiresAt) {
+        return BLACKLISTED_TOKENS_TABLE;
+    }
+
+    @Override
+    public String activeTokensTable(LocalDateTime expiresAt) {
+        return ACTIVE_TOKENS_TABLE;
+    }
+
+    @Override
+    public StorageStats getStats() {
+        return new StorageStats("table", null, 0, 0, null, null, 0L);
+    }
+}
@@ -5,32 +5,62 @@ import com.vietlong.spring_app.exception.AppException;
 import com.vietlong.spring_app.exception.ErrorCode;
 import com.vietlong.spring_app.model.ActiveToken;
 import com.vietlong.spring_app.model.BlacklistedToken;
+import com.vietlong.spring_app.model.RevocationEvent;
 import com.vietlong.spring_app.repository.ActiveTokenRepository;
 import com.vietlong.spring_app.repository.BlacklistedTokenRepository;
 import com.vietlong.spring_app.repository.UserRepository;
+import com.vietlong.spring_app.service.TokenPurgeEngine.Target;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TokenBlacklistService {
 
+    private static final int BULK_REVOCATION_CHUNK_SIZE = 1000;
+
     private final BlacklistedTokenRepository blacklistedTokenRepository;
     private final ActiveTokenRepository activeTokenRepository;
     private final JwtConfig jwtConfig;
     private final UserRepository userRepository;
+    private final RevocationEventBus revocationEventBus;
+    private final BlacklistReplica blacklistReplica;
+    private final TokenGenerationService tokenGenerationService;
+    private final BlacklistCircuitBreaker blacklistCircuitBreaker;
+    private final TokenWriteBehind tokenWriteBehind;
+    private final TokenPurgeEngine tokenPurgeEngine;
+    private final TokenStore tokenStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> inFlightLookups = new ConcurrentHashMap<>();
+    private final LongAdder replicaLookups = new LongAdder();
+    private final LongAdder databaseLookups = new LongAdder();
+    private final LongAdder coalescedLookups = new LongAdder();
+    private final LongAdder degradedLookups = new LongAdder();
+    private final LongAdder failOpenLookups = new LongAdder();
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional
     public void blacklistToken(String jti, String userId, Date expirationTime, String reason) throws AppException {
         try {
 
@@ -48,17 +78,27 @@ public class TokenBlacklistService {
                     .atZone(ZoneId.systemDefault())
                     .toLocalDateTime();
 
-            synchronized (this) {
-                if (blacklistedTokenRepository.existsByJti(jti)) {
-                    return;
-                }
+            if (blacklistReplica.contains(jti)) {
+                return;
+            }
 
-                activeTokenRepository.deleteByJti(jti);
+            if (tokenWriteBehind.isEnabled()) {
+                blacklistReplica.add(jti, expiresAt);
+                revocationEventBus.publish(new RevocationEvent(jti, userId, expiresAt));
+                if (!tokenWriteBehind.submitBlacklistedToken(jti, userId, expiresAt, reason)) {
+                    tokenStore.deleteActiveToken(jti, expiresAt);
+                    tokenStore.insertBlacklistedToken(jti, userId, expiresAt, LocalDateTime.now(), reason);
+                }
+                return;
+            }
 
-                BlacklistedToken blacklistedToken = new BlacklistedToken(jti, userId, expiresAt, reason);
-                blacklistedTokenRepository.save(blacklistedToken);
+            if (tokenStore.insertBlacklistedToken(jti, userId, expiresAt, LocalDateTime.now(), reason) == 0) {
+                return;
             }
 
+            tokenStore.deleteActiveToken(jti, expiresAt);
+            revocationEventBus.publish(new RevocationEvent(jti, userId, expiresAt));
+
         } catch (AppException e) {
             throw e;
         } catch (Exception e) {
@@ -66,18 +106,117 @@ public class TokenBlacklistService {
         }
     }
 
-    @Transactional(readOnly = true)
-    public boolean isTokenBlacklisted(String jti) throws AppException {
+    public boolean isTokenBlacklisted(String jti, Date expirationTime) throws AppException {
         try {
             if (jti == null || jti.trim().isEmpty()) {
                 return false;
             }
-            return blacklistedTokenRepository.existsByJti(jti);
+            if (blacklistReplica.isFresh()) {
+                replicaLookups.increment();
+                return blacklistReplica.contains(jti);
+            }
+            if (tokenWriteBehind.isEnabled() && blacklistReplica.contains(jti)) {
+                replicaLookups.increment();
+                return true;
+            }
+            if (!blacklistCircuitBreaker.allowRequest()) {
+                return degradedLookup(jti);
+            }
+            try {
+                return lookupBlacklistedToken(jti, toLocalDateTime(expirationTime));
+            } catch (Exception e) {
+                log.warn("Lỗi tra cứu blacklist trong database, chuyển sang replica: {}", e.getMessage());
+                return degradedLookup(jti);
+            }
+        } catch (AppException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AppException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    public Set<String> findBlacklistedJtis(Map<String, Date> expirationTimes) throws AppException {
+        try {
+            Set<String> blacklisted = new HashSet<>();
+            if (expirationTimes.isEmpty()) {
+                return blacklisted;
+            }
+            if (blacklistReplica.isFresh()) {
+                replicaLookups.add(expirationTimes.size());
+                for (String jti : expirationTimes.keySet()) {
+                    if (blacklistReplica.contains(jti)) {
+                        blacklisted.add(jti);
+                    }
+                }
+                return blacklisted;
+            }
+            if (blacklistCircuitBreaker.allowRequest()) {
+                Map<String, LocalDateTime> expiries = new HashMap<>();
+                expirationTimes.forEach((jti, expirationTime) -> expiries.put(jti, toLocalDateTime(expirationTime)));
+                try {
+                    databaseLookups.increment();
+                    blacklisted.addAll(blacklistCircuitBreaker.execute(() -> tokenStore.findBlacklistedJtis(expiries)));
+                    return blacklisted;
+                } catch (Exception e) {
+                    log.warn("Lỗi tra cứu blacklist theo lô trong database, chuyển sang replica: {}", e.getMessage());
+                }
+            }
+            for (String jti : expirationTimes.keySet()) {
+                if (degradedLookup(jti)) {
+                    blacklisted.add(jti);
+                }
+            }
+            return blacklisted;
+        } catch (AppException e) {
+            throw e;
         } catch (Exception e) {
             throw new AppException(ErrorCode.INTERNAL_SERVER_ERROR);
         }
     }
 
+    private boolean degradedLookup(String jti) throws AppException {
+        if (blacklistReplica.isReady()
+                && blacklistReplica.getStalenessMillis() <= jwtConfig.getBlacklistDegradedMaxStaleness()) {
+            degradedLookups.increment();
+            return blacklistReplica.contains(jti);
+        }
+        if (jwtConfig.isBlacklistDegradedFailOpen()) {
+            failOpenLookups.increment();
+            return blacklistReplica.isReady() && blacklistReplica.contains(jti);
+        }
+        throw new AppException(ErrorCode.SERVICE_UNAVAILABLE);
+    }
+
+    private boolean lookupBlacklistedToken(String jti, LocalDateTime expiresAt) throws Exception {
+        CompletableFuture<Boolean> lookup = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlight = inFlightLookups.putIfAbsent(jti, lookup);
+        if (inFlight != null) {
+            coalescedLookups.increment();
+            return inFlight.join();
+        }
+
+        databaseLookups.increment();
+        try {
+            boolean blacklisted = blacklistCircuitBreaker.execute(() -> tokenStore.isBlacklisted(jti, expiresAt));
+            lookup.complete(blacklisted);
+            return blacklisted;
+        } catch (Exception e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLookups.remove(jti, lookup);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date == null ? null : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    public LookupStats getLookupStats() {
+        return new LookupStats(replicaLookups.sum(), databaseLookups.sum(), coalescedLookups.sum(),
+                degradedLookups.sum(), failOpenLookups.sum(), inFlightLookups.size());
+    }
+
     @Transactional(readOnly = true)
     public BlacklistedToken getBlacklistedToken(String jti) throws AppException {
         try {
@@ -99,23 +238,13 @@ public class TokenBlacklistService {
                 throw new AppException(ErrorCode.BAD_REQUEST);
             }
 
-            if (!userRepository.existsById(userId)) {
+            if (!tokenGenerationService.revokeAllTokens(userId)) {
                 throw new AppException(ErrorCode.USER_NOT_FOUND);
             }
 
-            List<ActiveToken> activeTokens = activeTokenRepository.findByUserId(userId);
-
-            for (ActiveToken activeToken : activeTokens) {
-
-                BlacklistedToken blacklistedToken = new BlacklistedToken(
-                        activeToken.getJti(),
-                        activeToken.getUserId(),
-                        activeToken.getExpiresAt(),
-                        reason);
-                blacklistedTokenRepository.save(blacklistedToken);
-            }
-
-            activeTokenRepository.deleteAllByUserId(userId);
+            int revokedSessions = tokenStore.blacklistActiveTokens(List.of(userId), LocalDateTime.now(), reason);
+            tokenStore.deleteActiveTokens(List.of(userId));
+            log.info("Đã force logout user {} ({} phiên): {}", userId, revokedSessions, reason);
 
         } catch (AppException e) {
             throw e;
@@ -124,40 +253,98 @@ public class TokenBlacklistService {
         }
     }
 
+    public BulkRevocationResult blacklistAllUsersTokens(Collection<String> userIds, String reason)
+            throws AppException {
+        Set<String> distinctUserIds = new LinkedHashSet<>();
+        for (String userId : userIds) {
+            if (userId != null && !userId.trim().isEmpty()) {
+                distinctUserIds.add(userId);
+            }
+        }
+        if (distinctUserIds.isEmpty()) {
+            throw new AppException(ErrorCode.BAD_REQUEST);
+        }
+
+        List<String> pending = new ArrayList<>(distinctUserIds);
+        LocalDateTime now = LocalDateTime.now();
+        int processedUsers = 0;
+        int revokedUsers = 0;
+        int revokedSessions = 0;
+        for (int from = 0; from < pending.size(); from += BULK_REVOCATION_CHUNK_SIZE) {
+            List<String> chunk = pending.subList(from, Math.min(from + BULK_REVOCATION_CHUNK_SIZE, pending.size()));
+            int[] revoked;
+            try {
+                revoked = transactionTemplate.execute(status -> new int[] {
+                        tokenGenerationService.revokeAllTokens(chunk),
+                        revokeActiveSessions(chunk, now, reason) });
+            } catch (Exception e) {
+                log.error("Force logout dừng sau {}/{} user: {}", processedUsers, pending.size(), e.getMessage(), e);
+                if (processedUsers == 0) {
+                    throw new AppException(ErrorCode.FORCE_LOGOUT_FAILED);
+                }
+                return new BulkRevocationResult(pending.size(), processedUsers, revokedUsers, revokedSessions,
+                        List.copyOf(pending.subList(from, pending.size())));
+            }
+            processedUsers += chunk.size();
+            revokedUsers += revoked[0];
+            revokedSessions += revoked[1];
+        }
+
+        log.info("Đã force logout {} user ({} phiên): {}", revokedUsers, revokedSessions, reason);
+        return new BulkRevocationResult(pending.size(), processedUsers, revokedUsers, revokedSessions, List.of());
+    }
+
+    private int revokeActiveSessions(List<String> userIds, LocalDateTime now, String reason) {
+        int revokedSessions = tokenStore.blacklistActiveTokens(userIds, now, reason);
+        tokenStore.deleteActiveTokens(userIds);
+        return revokedSessions;
+    }
+
     @Scheduled(fixedRateString = "${spring.jwt.cleanup.expired-tokens-interval}")
-    @Transactional
     public void cleanupExpiredTokens() {
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            int deletedCount = blacklistedTokenRepository.deleteExpiredTokens(now);
-            if (deletedCount > 0) {
-                log.info("Đã xóa {} expired blacklisted tokens", deletedCount);
+        tokenPurgeEngine.runInBackground(() -> {
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                tokenStore.expireBlacklistedTokens(now);
+                tokenPurgeEngine.purge(Target.REVOCATION_EVENTS, now);
+            } catch (Exception e) {
+                log.error("Lỗi khi cleanup expired tokens: {}", e.getMessage(), e);
             }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${spring.jwt.blacklist.snapshot.interval}",
+            initialDelayString = "${spring.jwt.blacklist.snapshot.interval}")
+    @PreDestroy
+    public void checkpointBlacklistSnapshot() {
+        try {
+            blacklistReplica.checkpoint();
         } catch (Exception e) {
-            log.error("Lỗi khi cleanup expired tokens: {}", e.getMessage(), e);
+            log.error("Lỗi khi ghi blacklist snapshot: {}", e.getMessage(), e);
         }
     }
 
     @Scheduled(cron = "${spring.jwt.cleanup.deep-cleanup-cron}")
-    @Transactional
     public void deepCleanupOldTokens() {
-        try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(jwtConfig.getDeepCleanupDays());
-            int deletedCount = blacklistedTokenRepository.deleteExpiredTokens(cutoffDate);
-            if (deletedCount > 0) {
-                log.info("Deep cleanup: Đã xóa {} old blacklisted tokens", deletedCount);
+        tokenPurgeEngine.runInBackground(() -> {
+            try {
+                LocalDateTime cutoffDate = LocalDateTime.now().minusDays(jwtConfig.getDeepCleanupDays());
+                long deletedCount = tokenStore.expireBlacklistedTokens(cutoffDate);
+                if (deletedCount > 0) {
+                    log.info("Deep cleanup: Đã xóa {} old blacklisted tokens", deletedCount);
+                }
+            } catch (Exception e) {
+                log.error("Lỗi khi deep cleanup old tokens: {}", e.getMessage(), e);
             }
-        } catch (Exception e) {
-            log.error("Lỗi khi deep cleanup old tokens: {}", e.getMessage(), e);
-        }
+        });
     }
 
     @Scheduled(cron = "${spring.jwt.cleanup.orphaned-cleanup-cron}")
     @Transactional
     public void cleanupOrphanedTokens() {
         try {
-            int deletedBlacklistedCount = blacklistedTokenRepository.deleteOrphanedBlacklistedTokens();
-            int deletedActiveCount = activeTokenRepository.deleteOrphanedActiveTokens();
+            int deletedBlacklistedCount = tokenStore.deleteOrphanedBlacklistedTokens();
+            int deletedActiveCount = tokenStore.deleteOrphanedActiveTokens();
 
             if (deletedBlacklistedCount > 0 || deletedActiveCount > 0) {
                 log.info("Orphaned cleanup: Đã xóa {} blacklisted tokens và {} active tokens",
@@ -168,12 +355,11 @@ public class TokenBlacklistService {
         }
     }
 
-    @Transactional
     public int manualCleanup() throws AppException {
         try {
             LocalDateTime now = LocalDateTime.now();
-            int deletedCount = blacklistedTokenRepository.deleteExpiredTokens(now);
-            return deletedCount;
+            long deletedCount = tokenStore.expireBlacklistedTokens(now);
+            return (int) Math.min(Integer.MAX_VALUE, deletedCount);
         } catch (Exception e) {
             throw new AppException(ErrorCode.BLACKLIST_CLEANUP_FAILED);
         }
@@ -182,8 +368,8 @@ public class TokenBlacklistService {
     @Transactional
     public int manualCleanupOrphaned() throws AppException {
         try {
-            int deletedBlacklistedCount = blacklistedTokenRepository.deleteOrphanedBlacklistedTokens();
-            int deletedActiveCount = activeTokenRepository.deleteOrphanedActiveTokens();
+            int deletedBlacklistedCount = tokenStore.deleteOrphanedBlacklistedTokens();
+            int deletedActiveCount = tokenStore.deleteOrphanedActiveTokens();
             return deletedBlacklistedCount + deletedActiveCount;
         } catch (Exception e) {
             throw new AppException(ErrorCode.BLACKLIST_CLEANUP_FAILED);
@@ -239,6 +425,96 @@ public class TokenBlacklistService {
         }
     }
 
+    public static class BulkRevocationResult {
+        private final int requestedUsers;
+        private final int processedUsers;
+        private final int revokedUsers;
+        private final int revokedSessions;
+        private final List<String> remainingUserIds;
+
+        public BulkRevocationResult(int requestedUsers, int processedUsers, int revokedUsers, int revokedSessions,
+                List<String> remainingUserIds) {
+            this.requestedUsers = requestedUsers;
+            this.processedUsers = processedUsers;
+            this.revokedUsers = revokedUsers;
+            this.revokedSessions = revokedSessions;
+            this.remainingUserIds = remainingUserIds;
+        }
+
+        public int getRequestedUsers() {
+            return requestedUsers;
+        }
+
+        public int getProcessedUsers() {
+            return processedUsers;
+        }
+
+        public int getRevokedUsers() {
+            return revokedUsers;
+        }
+
+        public int getRevokedSessions() {
+            return revokedSessions;
+        }
+
+        public List<String> getRemainingUserIds() {
+            return remainingUserIds;
+        }
+
+        public boolean isCompleted() {
+            return remainingUserIds.isEmpty();
+        }
+    }
+
+    public static class LookupStats {
+        private final long replicaLookups;
+        private final long databaseLookups;
+        private final long coalescedLookups;
+        private final long degradedLookups;
+        private final long failOpenLookups;
+        private final int inFlightLookups;
+
+        public LookupStats(long replicaLookups, long databaseLookups, long coalescedLookups, long degradedLookups,
+                long failOpenLookups, int inFlightLookups) {
+            this.replicaLookups = replicaLookups;
+            this.databaseLookups = databaseLookups;
+            this.coalescedLookups = coalescedLookups;
+            this.degradedLookups = degradedLookups;
+            this.failOpenLookups = failOpenLookups;
+            this.inFlightLookups = inFlightLookups;
+        }
+
+        public long getReplicaLookups() {
+            return replicaLookups;
+        }
+
+        public long getDatabaseLookups() {
+            return databaseLookups;
+        }
+
+        public long getCoalescedLookups() {
+            return coalescedLookups;
+        }
+
+        public long getDegradedLookups() {
+            return degradedLookups;
+        }
+
+        public long getFailOpenLookups() {
+            return failOpenLookups;
+        }
+
+        public int getInFlightLookups() {
+            return inFlightLookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Lookup Stats - Replica: %d, Database: %d, Coalesced (saved): %d, Degraded: %d",
+                    replicaLookups, databaseLookups, coalescedLookups, degradedLookups);
+        }
+    }
+
     @Transactional(readOnly = true)
     public long getBlacklistedTokenCount(String userId) throws AppException {
         try {
@@ -258,7 +534,7 @@ public class TokenBlacklistService {
         }
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional
     public void saveActiveToken(String jti, String userId, Date expirationTime, String deviceInfo) throws AppException {
         try {
             if (jti == null || jti.trim().isEmpty()) {
@@ -275,15 +551,12 @@ public class TokenBlacklistService {
                     .atZone(ZoneId.systemDefault())
                     .toLocalDateTime();
 
-            synchronized (this) {
-                if (activeTokenRepository.existsByJti(jti)) {
-                    return;
-                }
-
-                ActiveToken activeToken = new ActiveToken(jti, userId, expiresAt, deviceInfo);
-                activeTokenRepository.save(activeToken);
+            if (tokenWriteBehind.submitActiveToken(jti, userId, expiresAt, deviceInfo)) {
+                return;
             }
 
+            tokenStore.insertActiveToken(jti, userId, expiresAt, LocalDateTime.now(), deviceInfo);
+
         } catch (AppException e) {
             throw e;
         } catch (Exception e) {
@@ -311,16 +584,13 @@ public class TokenBlacklistService {
     }
 
     @Scheduled(fixedRateString = "${spring.jwt.cleanup.active-tokens-interval:1800000}")
-    @Transactional
     public void cleanupExpiredActiveTokens() {
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            int deletedCount = activeTokenRepository.deleteExpiredTokens(now);
-            if (deletedCount > 0) {
-                log.info("Đã xóa {} expired active tokens", deletedCount);
+        tokenPurgeEngine.runInBackground(() -> {
+            try {
+                tokenStore.expireActiveTokens(LocalDateTime.now());
+            } catch (Exception e) {
+                log.error("Lỗi khi cleanup expired active tokens: {}", e.getMessage(), e);
             }
-        } catch (Exception e) {
-            log.error("Lỗi khi cleanup expired active tokens: {}", e.getMessage(), e);
-        }
+        });
     }
 }
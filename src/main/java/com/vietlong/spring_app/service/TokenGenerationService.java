@@ -0,0 +1,140 @@
+package com.vietlong.spring_app.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.model.RevocationType;
+import com.vietlong.spring_app.repository.UserRepository;
+import com.vietlong.spring_app.repository.UserRepository.TokenGenerationView;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class TokenGenerationService implements RevocationListener {
+
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final RevocationEventBus revocationEventBus;
+    private final JwtConfig jwtConfig;
+    private final BlacklistCircuitBreaker blacklistCircuitBreaker;
+    private final BlacklistReplica blacklistReplica;
+    private final Cache<String, Long> generations;
+    private final Cache<String, Long> lastKnownGenerations;
+
+    public TokenGenerationService(UserRepository userRepository, RevocationEventBus revocationEventBus,
+            JwtConfig jwtConfig, BlacklistCircuitBreaker blacklistCircuitBreaker, BlacklistReplica blacklistReplica) {
+        this.userRepository = userRepository;
+        this.revocationEventBus = revocationEventBus;
+        this.jwtConfig = jwtConfig;
+        this.blacklistCircuitBreaker = blacklistCircuitBreaker;
+        this.blacklistReplica = blacklistReplica;
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getUserGenerationCacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(jwtConfig.getUserGenerationCacheTtl()))
+                .build();
+        this.lastKnownGenerations = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getUserGenerationCacheMaxSize())
+                .build();
+        revocationEventBus.subscribe(this);
+    }
+
+    public long currentGeneration(String userId) {
+        try {
+            return generations.get(userId, this::loadGeneration);
+        } catch (GenerationUnavailableException e) {
+            return degradedGeneration(userId, e);
+        }
+    }
+
+    public boolean isCurrent(String userId, long tokenGeneration) {
+        return tokenGeneration >= currentGeneration(userId);
+    }
+
+    @Transactional
+    public boolean revokeAllTokens(String userId) {
+        if (userRepository.incrementTokenGeneration(userId) == 0) {
+            return false;
+        }
+        long generation = userRepository.findTokenGenerationById(userId).orElse(DELETED);
+        publish(userId, generation);
+        log.info("Đã nâng token generation của user {} lên {}", userId, generation);
+        return true;
+    }
+
+    @Transactional
+    public int revokeAllTokens(Collection<String> userIds) {
+        if (userIds.isEmpty() || userRepository.incrementTokenGenerations(userIds) == 0) {
+            return 0;
+        }
+        int revoked = 0;
+        for (TokenGenerationView view : userRepository.findTokenGenerationsByIdIn(userIds)) {
+            publish(view.getId(), view.getTokenGeneration());
+            revoked++;
+        }
+        log.info("Đã nâng token generation của {} user", revoked);
+        return revoked;
+    }
+
+    public void revokeDeletedUser(String userId) {
+        publish(userId, DELETED);
+    }
+
+    @Override
+    public void onRevocation(RevocationEvent event) {
+        if (event.getType() != RevocationType.USER || event.getGeneration() == null) {
+            return;
+        }
+        generations.asMap().merge(event.getUserId(), event.getGeneration(), Math::max);
+        lastKnownGenerations.asMap().merge(event.getUserId(), event.getGeneration(), Math::max);
+    }
+
+    private void publish(String userId, long generation) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(jwtConfig.getExpirationHours());
+        revocationEventBus.publish(new RevocationEvent(userId, generation, expiresAt));
+    }
+
+    private Long loadGeneration(String userId) {
+        if (!blacklistCircuitBreaker.allowRequest()) {
+            throw new GenerationUnavailableException(null);
+        }
+        try {
+            Long generation = blacklistCircuitBreaker.execute(
+                    () -> userRepository.findTokenGenerationById(userId).orElse(DELETED));
+            lastKnownGenerations.asMap().merge(userId, generation, Math::max);
+            return generation;
+        } catch (Exception e) {
+            throw new GenerationUnavailableException(e);
+        }
+    }
+
+    private long degradedGeneration(String userId, GenerationUnavailableException e) {
+        Long lastKnown = lastKnownGenerations.getIfPresent(userId);
+        boolean fresh = blacklistReplica.isReady()
+                && blacklistReplica.getStalenessMillis() <= jwtConfig.getBlacklistDegradedMaxStaleness();
+        if (lastKnown != null && (fresh || jwtConfig.isBlacklistDegradedFailOpen())) {
+            log.debug("Dùng token generation đã biết của user {} do database không khả dụng", userId);
+            return lastKnown;
+        }
+        if (jwtConfig.isBlacklistDegradedFailOpen()) {
+            log.warn("Không tra cứu được token generation của user {}, cho phép theo chế độ fail-open", userId);
+            return 0L;
+        }
+        throw new IllegalStateException("Không thể tra cứu token generation của user " + userId, e.getCause());
+    }
+
+    private static final class GenerationUnavailableException extends RuntimeException {
+        private GenerationUnavailableException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.vietlong.spring_app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.vietlong.spring_app.common.JwtConstants;
+import com.vietlong.spring_app.common.TimeConstants;
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.config.JwtKeySet;
+import com.vietlong.spring_app.config.JwtKeySet.KeyMaterial;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.model.User;
+
+@Component
+public class TokenIssuer {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtConfig jwtConfig;
+    private final JwtKeySet jwtKeySet;
+    private final Map<String, Object> claimTemplate;
+
+    public TokenIssuer(JwtConfig jwtConfig, JwtKeySet jwtKeySet) {
+        this.jwtConfig = jwtConfig;
+        this.jwtKeySet = jwtKeySet;
+
+        Map<String, Object> template = new LinkedHashMap<>();
+        template.put("iss", JwtConstants.ISSUER);
+        template.put("aud", JwtConstants.AUDIENCE);
+        this.claimTemplate = Collections.unmodifiableMap(template);
+    }
+
+    public IssuedToken issue(User user) {
+        return issue(user.getId(), user.getEmail(), user.getRole(), user.getTokenGeneration());
+    }
+
+    public IssuedToken issue(String userId, String email, Role role, long tokenGeneration) {
+        long issuedAtMillis = System.currentTimeMillis();
+        long expiresAtMillis = issuedAtMillis + TimeConstants.MILLISECONDS_PER_HOUR * jwtConfig.getExpirationHours();
+        String jti = UUID.randomUUID().toString();
+
+        Map<String, Object> claims = new LinkedHashMap<>(claimTemplate);
+        claims.put("sub", email);
+        claims.put("iat", issuedAtMillis / TimeConstants.MILLISECONDS_PER_SECOND);
+        claims.put("exp", expiresAtMillis / TimeConstants.MILLISECONDS_PER_SECOND);
+        claims.put("jti", jti);
+        claims.put(JwtConstants.USER_ID_CLAIM, userId);
+        claims.put(JwtConstants.EMAIL_CLAIM, email);
+        claims.put(JwtConstants.SCOPE_CLAIM, role.name());
+        claims.put(JwtConstants.TOKEN_GENERATION_CLAIM, tokenGeneration);
+
+        KeyMaterial key = jwtKeySet.current();
+        String signingInput = key.getEncodedHeader() + "."
+                + BASE64_URL.encodeToString(JSONObjectUtils.toJSONString(claims).getBytes(StandardCharsets.UTF_8));
+        byte[] signature = key.sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+
+        return new IssuedToken(signingInput + "." + BASE64_URL.encodeToString(signature), jti,
+                new Date(expiresAtMillis / TimeConstants.MILLISECONDS_PER_SECOND * TimeConstants.MILLISECONDS_PER_SECOND));
+    }
+
+    public static class IssuedToken {
+        private final String token;
+        private final String jti;
+        private final Date expiresAt;
+
+        public IssuedToken(String token, String jti, Date expiresAt) {
+            this.token = token;
+            this.jti = jti;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public String getJti() {
+            return jti;
+        }
+
+        public Date getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.vietlong.spring_app.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.PurgeCheckpoint;
+import com.vietlong.spring_app.repository.PurgeCheckpointRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class TokenPurgeEngine {
+
+    private static final int MAX_QUEUED_RUNS = 16;
+
+    public enum Target {
+        BLACKLISTED_TOKENS("blacklisted_tokens"),
+        ACTIVE_TOKENS("active_tokens"),
+        REVOCATION_EVENTS("token_revocation_events");
+
+        private final String table;
+
+        Target(String table) {
+            this.table = table;
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PurgeCheckpointRepository purgeCheckpointRepository;
+    private final JwtConfig jwtConfig;
+    private final Map<Target, Progress> progress = new EnumMap<>(Target.class);
+    private final String leaseOwner = UUID.randomUUID().toString();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_RUNS), runnable -> {
+                Thread thread = new Thread(runnable, "token-purge");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private volatile boolean stopping = false;
+
+    public TokenPurgeEngine(NamedParameterJdbcTemplate jdbcTemplate,
+            PurgeCheckpointRepository purgeCheckpointRepository, JwtConfig jwtConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeCheckpointRepository = purgeCheckpointRepository;
+        this.jwtConfig = jwtConfig;
+        for (Target target : Target.values()) {
+            progress.put(target, new Progress(jwtConfig.getPurgeInitialChunkSize()));
+        }
+    }
+
+    public long purge(Target target, LocalDateTime cutoff) {
+        Progress state = progress.get(target);
+        if (!state.running.compareAndSet(false, true)) {
+            log.info("Purge {} đang chạy, bỏ qua lần chạy này", target.table);
+            return 0;
+        }
+
+        try {
+            PurgeCheckpoint checkpoint = acquireLease(target, cutoff);
+            if (checkpoint == null) {
+                return 0;
+            }
+            state.start(checkpoint);
+            long deletedBefore = checkpoint.getDeletedCount();
+
+            checkpoint = run(target, checkpoint, state);
+            long deletedThisRun = state.deletedCount - deletedBefore;
+            if (checkpoint == null) {
+                return deletedThisRun;
+            }
+            releaseLease(checkpoint);
+            if (deletedThisRun > 0 || checkpoint.isCompleted()) {
+                log.info("Purge {}: đã xóa {} dòng trong {} chunk, tổng {} dòng{}", target.table, deletedThisRun,
+                        state.chunks, checkpoint.getDeletedCount(), checkpoint.isCompleted() ? "" : " (chưa xong)");
+            }
+            return deletedThisRun;
+        } finally {
+            state.running.set(false);
+        }
+    }
+
+    public void runInBackground(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Hàng đợi purge đã đầy, bỏ qua lần chạy này");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        executor.shutdown();
+    }
+
+    public List<PurgeProgress> getProgress() {
+        List<PurgeProgress> result = new ArrayList<>();
+        for (Map.Entry<Target, Progress> entry : progress.entrySet()) {
+            Progress state = entry.getValue();
+            result.add(new PurgeProgress(entry.getKey().table, state.running.get(), state.cutoff,
+                    state.deletedCount, state.chunks, state.chunkSize, state.lastLatencyMillis, state.lastExpiresAt,
+                    state.startedAt));
+        }
+        return result;
+    }
+
+    private PurgeCheckpoint acquireLease(Target target, LocalDateTime cutoff) {
+        LocalDateTime now = LocalDateTime.now();
+        PurgeCheckpoint checkpoint = purgeCheckpointRepository.findById(target.name()).orElse(null);
+        if (checkpoint == null) {
+            checkpoint = new PurgeCheckpoint(target.name(), cutoff);
+        } else if (checkpoint.isLeasedByOther(leaseOwner, now)) {
+            log.info("Purge {} đang được node khác giữ lease đến {}, bỏ qua lần chạy này", target.table,
+                    checkpoint.getLeaseExpiresAt());
+            return null;
+        } else if (checkpoint.isCompleted()) {
+            checkpoint.restart(cutoff);
+        } else {
+            log.debug("Tiếp tục purge {} bắt đầu từ {} ({} dòng đã xóa)", target.table,
+                    checkpoint.getStartedAt(), checkpoint.getDeletedCount());
+            if (cutoff.isAfter(checkpoint.getCutoff())) {
+                checkpoint.setCutoff(cutoff);
+            }
+        }
+
+        checkpoint.setLeaseOwner(leaseOwner);
+        checkpoint.setLeaseExpiresAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(jwtConfig.getPurgeLeaseDuration())));
+        try {
+            return purgeCheckpointRepository.save(checkpoint);
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            log.info("Node khác vừa nhận lease purge {}, bỏ qua lần chạy này", target.table);
+            return null;
+        }
+    }
+
+    private PurgeCheckpoint renewLease(PurgeCheckpoint checkpoint) {
+        checkpoint.setLeaseExpiresAt(LocalDateTime.now()
+                .plusNanos(TimeUnit.MILLISECONDS.toNanos(jwtConfig.getPurgeLeaseDuration())));
+        return purgeCheckpointRepository.save(checkpoint);
+    }
+
+    private void releaseLease(PurgeCheckpoint checkpoint) {
+        checkpoint.setLeaseOwner(null);
+        checkpoint.setLeaseExpiresAt(null);
+        try {
+            purgeCheckpointRepository.save(checkpoint);
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Lease purge {} đã bị node khác nhận trước khi trả", checkpoint.getTarget());
+        }
+    }
+
+    private PurgeCheckpoint run(Target target, PurgeCheckpoint checkpoint, Progress state) {
+        String selectSql = "SELECT id, expires_at FROM " + target.table
+                + " WHERE expires_at < :cutoff ORDER BY expires_at LIMIT :limit";
+        String deleteSql = "DELETE FROM " + target.table + " WHERE id IN (:ids)";
+        long deadline = System.currentTimeMillis() + jwtConfig.getPurgeMaxDuration();
+
+        try {
+            while (!stopping && System.currentTimeMillis() < deadline) {
+                int chunkSize = state.chunkSize;
+                long startedAt = System.nanoTime();
+
+                List<Object> ids = new ArrayList<>(chunkSize);
+                LocalDateTime[] lastExpiresAt = new LocalDateTime[1];
+                jdbcTemplate.query(selectSql,
+                        new MapSqlParameterSource("cutoff", checkpoint.getCutoff()).addValue("limit", chunkSize),
+                        rs -> {
+                            ids.add(rs.getObject(1));
+                            lastExpiresAt[0] = rs.getTimestamp(2).toLocalDateTime();
+                        });
+
+                if (ids.isEmpty()) {
+                    checkpoint.setCompletedAt(LocalDateTime.now());
+                    checkpoint = renewLease(checkpoint);
+                    break;
+                }
+
+                int deleted = jdbcTemplate.update(deleteSql, new MapSqlParameterSource("ids", ids));
+                long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+                checkpoint.setDeletedCount(checkpoint.getDeletedCount() + deleted);
+                checkpoint.setChunkCount(checkpoint.getChunkCount() + 1);
+                checkpoint.setLastExpiresAt(lastExpiresAt[0]);
+                if (ids.size() < chunkSize) {
+                    checkpoint.setCompletedAt(LocalDateTime.now());
+                }
+                checkpoint = renewLease(checkpoint);
+                state.record(checkpoint, latencyMillis, adjustChunkSize(chunkSize, latencyMillis));
+
+                if (checkpoint.isCompleted() || !pause(latencyMillis)) {
+                    break;
+                }
+            }
+            return checkpoint;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Mất lease purge {} cho node khác, dừng lần chạy này", target.table);
+            return null;
+        }
+    }
+
+    private int adjustChunkSize(int chunkSize, long latencyMillis) {
+        long targetLatency = jwtConfig.getPurgeTargetLatency();
+        int next = chunkSize;
+        if (latencyMillis > targetLatency) {
+            next = chunkSize / 2;
+        } else if (latencyMillis < targetLatency / 2) {
+            next = chunkSize + Math.max(1, chunkSize / 2);
+        }
+        return Math.max(jwtConfig.getPurgeMinChunkSize(), Math.min(jwtConfig.getPurgeMaxChunkSize(), next));
+    }
+
+    private boolean pause(long latencyMillis) {
+        long pauseMillis = (long) Math.ceil(latencyMillis * jwtConfig.getPurgePauseFactor());
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class Progress {
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile int chunkSize;
+        private volatile LocalDateTime cutoff;
+        private volatile long deletedCount;
+        private volatile long chunks;
+        private volatile long lastLatencyMillis;
+        private volatile LocalDateTime lastExpiresAt;
+        private volatile LocalDateTime startedAt;
+
+        private Progress(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        private void start(PurgeCheckpoint checkpoint) {
+            this.cutoff = checkpoint.getCutoff();
+            this.deletedCount = checkpoint.getDeletedCount();
+            this.chunks = checkpoint.getChunkCount();
+            this.lastExpiresAt = checkpoint.getLastExpiresAt();
+            this.startedAt = checkpoint.getStartedAt();
+        }
+
+        private void record(PurgeCheckpoint checkpoint, long latencyMillis, int nextChunkSize) {
+            this.deletedCount = checkpoint.getDeletedCount();
+            this.chunks = checkpoint.getChunkCount();
+            this.lastExpiresAt = checkpoint.getLastExpiresAt();
+            this.lastLatencyMillis = latencyMillis;
+            this.chunkSize = nextChunkSize;
+        }
+    }
+
+    public static class PurgeProgress {
+        private final String table;
+        private final boolean running;
+        private final LocalDateTime cutoff;
+        private final long deletedCount;
+        private final long chunks;
+        private final int chunkSize;
+        private final long lastLatencyMillis;
+        private final LocalDateTime lastExpiresAt;
+        private final LocalDateTime startedAt;
+
+        public PurgeProgress(String table, boolean running, LocalDateTime cutoff, long deletedCount, long chunks,
+                int chunkSize, long lastLatencyMillis, LocalDateTime lastExpiresAt, LocalDateTime startedAt) {
+            this.table = table;
+            this.running = running;
+            this.cutoff = cutoff;
+            this.deletedCount = deletedCount;
+            this.chunks = chunks;
+            this.chunkSize = chunkSize;
+            this.lastLatencyMillis = lastLatencyMillis;
+            this.lastExpiresAt = lastExpiresAt;
+            this.startedAt = startedAt;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public LocalDateTime getCutoff() {
+            return cutoff;
+        }
+
+        public long getDeletedCount() {
+            return deletedCount;
+        }
+
+        public long getChunks() {
+            return chunks;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public long getLastLatencyMillis() {
+            return lastLatencyMillis;
+        }
+
+        public LocalDateTime getLastExpiresAt() {
+            return lastExpiresAt;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Purge Progress - %s: Deleted: %d, Chunks: %d, Chunk size: %d, Last latency: %d ms",
+                    table, deletedCount, chunks, chunkSize, lastLatencyMillis);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.vietlong.spring_app.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface TokenStore {
+
+    int insertBlacklistedToken(String jti, String userId, LocalDateTime expiresAt, LocalDateTime blacklistedAt,
+            String reason);
+
+    int insertActiveToken(String jti, String userId, LocalDateTime expiresAt, LocalDateTime createdAt,
+            String deviceInfo);
+
+    void deleteActiveToken(String jti, LocalDateTime expiresAt);
+
+    boolean isBlacklisted(String jti, LocalDateTime expiresAt);
+
+    List<String> findBlacklistedJtis(Map<String, LocalDateTime> expiries);
+
+    int blacklistActiveTokens(Collection<String> userIds, LocalDateTime blacklistedAt, String reason);
+
+    int deleteActiveTokens(Collection<String> userIds);
+
+    int deleteOrphanedBlacklistedTokens();
+
+    int deleteOrphanedActiveTokens();
+
+    long expireBlacklistedTokens(LocalDateTime cutoff);
+
+    long expireActiveTokens(LocalDateTime cutoff);
+
+    String blacklistedTokensTable(LocalDateTime expiresAt);
+
+    String activeTokensTable(LocalDateTime expiresAt);
+
+    StorageStats getStats();
+
+    class StorageStats {
+        private final String layout;
+        private final String granularity;
+        private final int blacklistedBuckets;
+        private final int activeBuckets;
+        private final LocalDateTime oldestBucketStart;
+        private final LocalDateTime newestBucketEnd;
+        private final long droppedBuckets;
+
+        public StorageStats(String layout, String granularity, int blacklistedBuckets, int activeBuckets,
+                LocalDateTime oldestBucketStart, LocalDateTime newestBucketEnd, long droppedBuckets) {
+            this.layout = layout;
+            this.granularity = granularity;
+            this.blacklistedBuckets = blacklistedBuckets;
+            this.activeBuckets = activeBuckets;
+            this.oldestBucketStart = oldestBucketStart;
+            this.newestBucketEnd = newestBucketEnd;
+            this.droppedBuckets = droppedBuckets;
+        }
+
+        public String getLayout() {
+            return layout;
+        }
+
+        public String getGranularity() {
+            return granularity;
+        }
+
+        public int getBlacklistedBuckets() {
+            return blacklistedBuckets;
+        }
+
+        public int getActiveBuckets() {
+            return activeBuckets;
+        }
+
+        public LocalDateTime getOldestBucketStart() {
+            return oldestBucketStart;
+        }
+
+        public LocalDateTime getNewestBucketEnd() {
+            return newestBucketEnd;
+        }
+
+        public long getDroppedBuckets() {
+            return droppedBuckets;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Storage Stats - Layout: %s, Blacklisted buckets: %d, Active buckets: %d, Dropped: %d",
+                    layout, blacklistedBuckets, activeBuckets, droppedBuckets);
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.vietlong.spring_app.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vietlong.spring_app.config.JwtConfig;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class TokenWriteBehind {
+
+    private static final String INSERT_ACTIVE_TOKEN_SQL = "INSERT INTO %s "
+            + "(id, jti, user_id, expires_at, created_at, device_info) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_ACTIVE_TOKEN_SQL = "DELETE FROM %s WHERE jti = ?";
+    private static final String INSERT_BLACKLISTED_TOKEN_SQL = "INSERT INTO %s "
+            + "(id, jti, user_id, expires_at, blacklisted_at, reason) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String FIND_UNPERSISTED_REVOCATIONS_SQL = "SELECT e.jti, e.user_id, e.expires_at "
+            + "FROM token_revocation_events e WHERE e.event_type = 'TOKEN' AND e.expires_at > ? AND e.created_at < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM blacklisted_tokens bt WHERE bt.jti = e.jti)";
+    private static final String RECOVERED_REASON = "RECOVERED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlacklistReplica blacklistReplica;
+    private final TokenStore tokenStore;
+    private final JwtConfig jwtConfig;
+    private final BlockingQueue<PendingWrite> queue;
+    private final LongAdder queuedWrites = new LongAdder();
+    private final LongAdder rejectedWrites = new LongAdder();
+    private final LongAdder flushedBatches = new LongAdder();
+    private final LongAdder flushedWrites = new LongAdder();
+    private final LongAdder fallbackWrites = new LongAdder();
+    private final LongAdder retriedWrites = new LongAdder();
+    private final LongAdder droppedWrites = new LongAdder();
+    private final Deque<PendingWrite> retries = new ArrayDeque<>();
+
+    private volatile boolean running = false;
+    private Thread flusher;
+
+    public TokenWriteBehind(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            BlacklistReplica blacklistReplica, TokenStore tokenStore, JwtConfig jwtConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blacklistReplica = blacklistReplica;
+        this.tokenStore = tokenStore;
+        this.jwtConfig = jwtConfig;
+        this.queue = new ArrayBlockingQueue<>(jwtConfig.getWriteBehindQueueCapacity());
+    }
+
+    @PostConstruct
+    void start() {
+        if (!jwtConfig.isWriteBehindEnabled()) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "token-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    public boolean submitActiveToken(String jti, String userId, LocalDateTime expiresAt, String deviceInfo) {
+        return submit(new PendingWrite(PendingWrite.ACTIVE, jti, userId, expiresAt, deviceInfo));
+    }
+
+    public boolean submitBlacklistedToken(String jti, String userId, LocalDateTime expiresAt, String reason) {
+        return submit(new PendingWrite(PendingWrite.BLACKLISTED, jti, userId, expiresAt, reason));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnpersistedRevocations() {
+        recoverUnpersistedRevocations(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${spring.jwt.write-behind.recovery-interval}",
+            initialDelayString = "${spring.jwt.write-behind.recovery-interval}")
+    public void recoverLostRevocations() {
+        recoverUnpersistedRevocations(
+                LocalDateTime.now().minus(jwtConfig.getWriteBehindRecoveryInterval(), ChronoUnit.MILLIS));
+    }
+
+    private void recoverUnpersistedRevocations(LocalDateTime createdBefore) {
+        if (!running) {
+            return;
+        }
+        try {
+            List<PendingWrite> recovered = jdbcTemplate.query(FIND_UNPERSISTED_REVOCATIONS_SQL,
+                    (rs, rowNum) -> new PendingWrite(PendingWrite.BLACKLISTED, rs.getString(1), rs.getString(2),
+                            rs.getTimestamp(3).toLocalDateTime(), RECOVERED_REASON),
+                    Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(createdBefore));
+            if (recovered.isEmpty()) {
+                return;
+            }
+            for (PendingWrite write : recovered) {
+                blacklistReplica.add(write.jti, write.expiresAt);
+            }
+            List<PendingWrite> failed = flush(recovered);
+            log.warn("Đã khôi phục {}/{} blacklisted token chưa được ghi từ revocation events",
+                    recovered.size() - failed.size(), recovered.size());
+        } catch (Exception e) {
+            log.error("Lỗi khi khôi phục blacklisted token từ revocation events: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(jwtConfig.getWriteBehindShutdownTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Write-behind flusher chưa dừng kịp, ghi đồng bộ {} thao tác còn lại", remaining.size());
+            drop(flush(remaining));
+        }
+        log.info("Đã dừng write-behind: {}", getStats());
+    }
+
+    public WriteBehindStats getStats() {
+        return new WriteBehindStats(running, queue.size(), queuedWrites.sum(), rejectedWrites.sum(),
+                flushedBatches.sum(), flushedWrites.sum(), fallbackWrites.sum(), retriedWrites.sum(),
+                droppedWrites.sum());
+    }
+
+    private boolean submit(PendingWrite write) {
+        if (!running || !queue.offer(write)) {
+            rejectedWrites.increment();
+            return false;
+        }
+        queuedWrites.increment();
+        return true;
+    }
+
+    private void runFlusher() {
+        int batchSize = jwtConfig.getWriteBehindBatchSize();
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(jwtConfig.getWriteBehindFlushInterval());
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty() || !retries.isEmpty()) {
+            try {
+                takeDueRetries(batch, batchSize);
+                if (batch.isEmpty()) {
+                    PendingWrite first = queue.poll(pollTimeoutNanos(flushIntervalNanos), TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0 || !running) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                retryOrDrop(flush(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                List<PendingWrite> failed = new ArrayList<>(flush(batch));
+                failed.addAll(retries);
+                retries.clear();
+                drop(failed);
+                return;
+            } catch (Exception e) {
+                log.error("Lỗi trong write-behind flusher: {}", e.getMessage(), e);
+                retryOrDrop(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void takeDueRetries(List<PendingWrite> batch, int batchSize) {
+        long now = System.nanoTime();
+        Iterator<PendingWrite> iterator = retries.iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            PendingWrite write = iterator.next();
+            if (!running || write.retryAtNanos - now <= 0) {
+                iterator.remove();
+                batch.add(write);
+            }
+        }
+    }
+
+    private long pollTimeoutNanos(long flushIntervalNanos) {
+        long timeout = flushIntervalNanos;
+        long now = System.nanoTime();
+        for (PendingWrite write : retries) {
+            timeout = Math.min(timeout, Math.max(0, write.retryAtNanos - now));
+        }
+        return timeout;
+    }
+
+    private void retryOrDrop(List<PendingWrite> failed) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        int maxAttempts = jwtConfig.getWriteBehindMaxAttempts();
+        List<PendingWrite> exhausted = new ArrayList<>();
+        for (PendingWrite write : failed) {
+            write.attempts++;
+            if (!running || write.attempts >= maxAttempts || retries.size() >= jwtConfig.getWriteBehindQueueCapacity()) {
+                exhausted.add(write);
+                continue;
+            }
+            write.retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis(write.attempts));
+            retries.add(write);
+            retriedWrites.increment();
+        }
+        drop(exhausted);
+    }
+
+    private void drop(List<PendingWrite> writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        droppedWrites.add(writes.size());
+        log.error("Bỏ {} thao tác write-behind sau khi ghi thất bại {} lần", writes.size(),
+                jwtConfig.getWriteBehindMaxAttempts());
+    }
+
+    private long backoffMillis(int attempts) {
+        long backoff = jwtConfig.getWriteBehindFlushInterval() << Math.min(attempts, 20);
+        return Math.min(backoff, jwtConfig.getWriteBehindMaxRetryBackoff());
+    }
+
+    private List<PendingWrite> flush(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, PendingWrite> activeTokens = new LinkedHashMap<>();
+        Map<String, PendingWrite> blacklistedTokens = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            if (write.kind == PendingWrite.ACTIVE) {
+                activeTokens.putIfAbsent(write.jti, write);
+            } else {
+                blacklistedTokens.putIfAbsent(write.jti, write);
+            }
+        }
+        activeTokens.keySet().removeAll(blacklistedTokens.keySet());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertActiveTokens(new ArrayList<>(activeTokens.values()));
+                deleteActiveTokens(new ArrayList<>(blacklistedTokens.values()));
+                insertBlacklistedTokens(new ArrayList<>(blacklistedTokens.values()));
+            });
+            flushedBatches.increment();
+            flushedWrites.add(batch.size());
+            return List.of();
+        } catch (TransactionException | TransientDataAccessException | DataAccessResourceFailureException e) {
+            log.warn("Không thể ghi batch {} thao tác, database tạm thời không khả dụng: {}", batch.size(),
+                    e.getMessage());
+            List<PendingWrite> failed = new ArrayList<>(activeTokens.values());
+            failed.addAll(blacklistedTokens.values());
+            return failed;
+        } catch (RuntimeException e) {
+            log.warn("Ghi batch {} thao tác thất bại, chuyển sang ghi từng dòng: {}", batch.size(), e.getMessage());
+            List<PendingWrite> failed = new ArrayList<>();
+            for (PendingWrite write : activeTokens.values()) {
+                if (!writeIndividually(write)) {
+                    failed.add(write);
+                }
+            }
+            for (PendingWrite write : blacklistedTokens.values()) {
+                if (!writeIndividually(write)) {
+                    failed.add(write);
+                }
+            }
+            return failed;
+        }
+    }
+
+    private boolean writeIndividually(PendingWrite write) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (write.kind == PendingWrite.ACTIVE) {
+                    insertActiveTokens(List.of(write));
+                } else {
+                    deleteActiveTokens(List.of(write));
+                    insertBlacklistedTokens(List.of(write));
+                }
+            });
+            fallbackWrites.increment();
+            return true;
+        } catch (DuplicateKeyException e) {
+            fallbackWrites.increment();
+            return true;
+        } catch (Exception e) {
+            log.error("Không thể ghi token {} ({}): {}", write.jti, write.kind, e.getMessage());
+            return false;
+        }
+    }
+
+    private void insertActiveTokens(List<PendingWrite> writes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<String, List<PendingWrite>> entry : byTable(writes, tokenStore::activeTokensTable).entrySet()) {
+            List<PendingWrite> tableWrites = entry.getValue();
+            jdbcTemplate.batchUpdate(String.format(INSERT_ACTIVE_TOKEN_SQL, entry.getKey()), tableWrites,
+                    tableWrites.size(), (ps, write) -> {
+                        ps.setString(1, UUID.randomUUID().toString());
+                        ps.setString(2, write.jti);
+                        ps.setString(3, write.userId);
+                        ps.setTimestamp(4, Timestamp.valueOf(write.expiresAt));
+                        ps.setTimestamp(5, now);
+                        ps.setString(6, write.detail);
+                    });
+        }
+    }
+
+    private void deleteActiveTokens(List<PendingWrite> writes) {
+        for (Map.Entry<String, List<PendingWrite>> entry : byTable(writes, tokenStore::activeTokensTable).entrySet()) {
+            List<PendingWrite> tableWrites = entry.getValue();
+            jdbcTemplate.batchUpdate(String.format(DELETE_ACTIVE_TOKEN_SQL, entry.getKey()), tableWrites,
+                    tableWrites.size(), (ps, write) -> ps.setString(1, write.jti));
+        }
+    }
+
+    private void insertBlacklistedTokens(List<PendingWrite> writes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<String, List<PendingWrite>> entry : byTable(writes, tokenStore::blacklistedTokensTable)
+                .entrySet()) {
+            List<PendingWrite> tableWrites = entry.getValue();
+            jdbcTemplate.batchUpdate(String.format(INSERT_BLACKLISTED_TOKEN_SQL, entry.getKey()), tableWrites,
+                    tableWrites.size(), (ps, write) -> {
+                        ps.setString(1, UUID.randomUUID().toString());
+                        ps.setString(2, write.jti);
+                        ps.setString(3, write.userId);
+                        ps.setTimestamp(4, Timestamp.valueOf(write.expiresAt));
+                        ps.setTimestamp(5, now);
+                        ps.setString(6, write.detail);
+                    });
+        }
+    }
+
+    private static Map<String, List<PendingWrite>> byTable(List<PendingWrite> writes,
+            Function<LocalDateTime, String> tableResolver) {
+        Map<String, List<PendingWrite>> byTable = new LinkedHashMap<>();
+        for (PendingWrite write : writes) {
+            byTable.computeIfAbsent(tableResolver.apply(write.expiresAt), table -> new ArrayList<>()).add(write);
+        }
+        return byTable;
+    }
+
+    private static final class PendingWrite {
+        private static final int ACTIVE = 0;
+        private static final int BLACKLISTED = 1;
+
+        private final int kind;
+        private final String jti;
+        private final String userId;
+        private final LocalDateTime expiresAt;
+        private final String detail;
+        private int attempts;
+        private long retryAtNanos;
+
+        private PendingWrite(int kind, String jti, String userId, LocalDateTime expiresAt, String detail) {
+            this.kind = kind;
+            this.jti = jti;
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+            this.detail = detail;
+        }
+    }
+
+    public static class WriteBehindStats {
+        private final boolean enabled;
+        private final int queueDepth;
+        private final long queuedWrites;
+        private final long rejectedWrites;
+        private final long flushedBatches;
+        private final long flushedWrites;
+        private final long fallbackWrites;
+        private final long retriedWrites;
+        private final long droppedWrites;
+
+        public WriteBehindStats(boolean enabled, int queueDepth, long queuedWrites, long rejectedWrites,
+                long flushedBatches, long flushedWrites, long fallbackWrites, long retriedWrites, long droppedWrites) {
+            this.enabled = enabled;
+            this.queueDepth = queueDepth;
+            this.queuedWrites = queuedWrites;
+            this.rejectedWrites = rejectedWrites;
+            this.flushedBatches = flushedBatches;
+            this.flushedWrites = flushedWrites;
+            this.fallbackWrites = fallbackWrites;
+            this.retriedWrites = retriedWrites;
+            this.droppedWrites = droppedWrites;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getQueuedWrites() {
+            return queuedWrites;
+        }
+
+        public long getRejectedWrites() {
+            return rejectedWrites;
+        }
+
+        public long getFlushedBatches() {
+            return flushedBatches;
+        }
+
+        public long getFlushedWrites() {
+            return flushedWrites;
+        }
+
+        public long getFallbackWrites() {
+            return fallbackWrites;
+        }
+
+        public long getRetriedWrites() {
+            return retriedWrites;
+        }
+
+        public long getDroppedWrites() {
+            return droppedWrites;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Write-behind Stats - Queue: %d, Queued: %d, Rejected: %d, Batches: %d, Flushed: %d, Retried: %d, Dropped: %d",
+                    queueDepth, queuedWrites, rejectedWrites, flushedBatches, flushedWrites, retriedWrites, droppedWrites);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.vietlong.spring_app.service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.model.RevocationType;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.repository.UserRepository;
+
+@Component
+public class UserCredentialCache implements RevocationListener {
+
+    private final UserRepository userRepository;
+    private final LoadingCache<String, Credentials> cache;
+    private final ConcurrentMap<String, String> emailsByUserId = new ConcurrentHashMap<>();
+
+    public UserCredentialCache(UserRepository userRepository, JwtConfig jwtConfig,
+            RevocationEventBus revocationEventBus) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getCredentialCacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(jwtConfig.getCredentialCacheTtl()))
+                .evictionListener((String email, Credentials credentials, RemovalCause cause) -> {
+                    if (credentials != null) {
+                        emailsByUserId.remove(credentials.getId(), email);
+                    }
+                })
+                .build(this::loadCredentials);
+        revocationEventBus.subscribe(this);
+    }
+
+    public Credentials get(String email) {
+        return email == null ? null : cache.get(email);
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        Credentials removed = cache.asMap().remove(email);
+        if (removed != null) {
+            emailsByUserId.remove(removed.getId(), email);
+        }
+    }
+
+    @Override
+    public void onRevocation(RevocationEvent event) {
+        if (event.getType() != RevocationType.USER || event.getUserId() == null) {
+            return;
+        }
+        String email = emailsByUserId.remove(event.getUserId());
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    private Credentials loadCredentials(String email) {
+        Credentials credentials = userRepository.findCredentialsByEmail(email)
+                .map(view -> new Credentials(view.getId(), view.getEmail(), view.getPassword(), view.getRole()))
+                .orElse(null);
+        if (credentials != null) {
+            emailsByUserId.put(credentials.getId(), email);
+        }
+        return credentials;
+    }
+
+    public static final class Credentials {
+        private final String id;
+        private final String email;
+        private final String password;
+        private final Role role;
+
+        public Credentials(String id, String email, String password, Role role) {
+            this.id = id;
+            this.email = email;
+            this.password = password;
+            this.role = role;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public Role getRole() {
+            return role;
+        }
+    }
+}
@@ -3,11 +3,11 @@ package com.vietlong.spring_app.service.admin;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,16 +20,20 @@ import com.vietlong.spring_app.exception.ErrorCode;
 import com.vietlong.spring_app.model.Role;
 import com.vietlong.spring_app.model.User;
 import com.vietlong.spring_app.repository.UserRepository;
+import com.vietlong.spring_app.service.PasswordHashingService;
 
 @Service
 public class AdminUserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AdminUserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AdminUserService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -72,7 +76,7 @@ public class AdminUserService {
         User user = new User();
         user.setDisplayName(createUserRequest.getDisplayName());
         user.setEmail(createUserRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(createUserRequest.getPassword()));
+        user.setPassword(passwordHashingService.encode(createUserRequest.getPassword()));
         user.setRole(Role.USER);
         user.setPhoneNumber(createUserRequest.getPhoneNumber());
         user.setDateOfBirth(createUserRequest.getDateOfBirth());
@@ -88,12 +92,14 @@ public class AdminUserService {
     @Transactional
     public UserResponse updateUser(String userId, UpdateUserRequest updateUserRequest) throws AppException {
         User user = findUserById(userId);
+        boolean passwordChanged = false;
 
         if (updateUserRequest.getDisplayName() != null && !updateUserRequest.getDisplayName().trim().isEmpty()) {
             user.setDisplayName(updateUserRequest.getDisplayName());
         }
         if (updateUserRequest.getPassword() != null && !updateUserRequest.getPassword().trim().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(updateUserRequest.getPassword()));
+            user.setPassword(passwordHashingService.encode(updateUserRequest.getPassword()));
+            passwordChanged = true;
         }
         if (updateUserRequest.getPhoneNumber() != null && !updateUserRequest.getPhoneNumber().trim().isEmpty()) {
             Optional<User> existingUserByPhone = userRepository.findByPhoneNumber(updateUserRequest.getPhoneNumber());
@@ -117,6 +123,7 @@ public class AdminUserService {
         }
 
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(userId, user.getEmail(), passwordChanged, false));
         return Mapper.convertToUserResponse(updatedUser);
     }
 
@@ -124,6 +131,7 @@ public class AdminUserService {
     public void deleteUser(String userId) throws AppException {
         User user = findUserById(userId);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(userId, user.getEmail(), false, true));
     }
 
     private User findUserById(String userId) throws AppException {
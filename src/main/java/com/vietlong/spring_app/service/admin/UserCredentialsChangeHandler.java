@@ -0,0 +1,34 @@
+package com.vietlong.spring_app.service.admin;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vietlong.spring_app.service.TokenGenerationService;
+import com.vietlong.spring_app.service.UserCredentialCache;
+
+@Component
+public class UserCredentialsChangeHandler {
+
+    private final TokenGenerationService tokenGenerationService;
+    private final UserCredentialCache userCredentialCache;
+
+    public UserCredentialsChangeHandler(TokenGenerationService tokenGenerationService,
+            UserCredentialCache userCredentialCache) {
+        this.tokenGenerationService = tokenGenerationService;
+        this.userCredentialCache = userCredentialCache;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCredentialsChanged(UserCredentialsChangedEvent event) {
+        userCredentialCache.invalidate(event.getEmail());
+        if (event.isDeleted()) {
+            tokenGenerationService.revokeDeletedUser(event.getUserId());
+        } else if (event.isRevokeTokens()) {
+            tokenGenerationService.revokeAllTokens(event.getUserId());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.vietlong.spring_app.service.admin;
+
+public class UserCredentialsChangedEvent {
+
+    private final String userId;
+    private final String email;
+    private final boolean revokeTokens;
+    private final boolean deleted;
+
+    public UserCredentialsChangedEvent(String userId, String email, boolean revokeTokens, boolean deleted) {
+        this.userId = userId;
+        this.email = email;
+        this.revokeTokens = revokeTokens;
+        this.deleted = deleted;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isRevokeTokens() {
+        return revokeTokens;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,88 @@
+package com.vietlong.spring_app.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.vietlong.spring_app.dto.response.IntrospectTokenResponse;
+
+class IntrospectionCodecTests {
+
+	@Test
+	void requestRoundTrips() {
+		List<String> tokens = List.of("header.payload.signature", "a.b.c");
+
+		assertEquals(tokens, IntrospectionCodec.decodeRequest(IntrospectionCodec.encodeRequest(tokens)));
+	}
+
+	@Test
+	void responseRoundTrips() {
+		LocalDateTime issuedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+		IntrospectTokenResponse valid = IntrospectTokenResponse.builder()
+				.isValid(true)
+				.scope("USER")
+				.clientId(JwtConstants.AUDIENCE)
+				.username("codec@example.com")
+				.issuedAt(issuedAt)
+				.expiresAt(issuedAt.plusHours(1))
+				.jti("jti-1")
+				.build();
+		IntrospectTokenResponse invalid = IntrospectTokenResponse.builder().isValid(false).build();
+
+		List<IntrospectTokenResponse> decoded = IntrospectionCodec.decodeResponse(
+				IntrospectionCodec.encodeResponse(List.of(valid, invalid)));
+
+		assertEquals(List.of(valid, invalid), decoded);
+	}
+
+	@Test
+	void validResponseWithoutOptionalFieldsRoundTripsAsNulls() {
+		IntrospectTokenResponse sparse = IntrospectTokenResponse.builder().isValid(true).build();
+
+		IntrospectTokenResponse decoded = IntrospectionCodec.decodeResponse(
+				IntrospectionCodec.encodeResponse(List.of(sparse))).get(0);
+
+		assertTrue(decoded.getIsValid());
+		assertNull(decoded.getIssuedAt());
+		assertNull(decoded.getScope());
+		assertNull(decoded.getJti());
+	}
+
+	@Test
+	void malformedRequestsAreRejected() {
+		byte[] valid = IntrospectionCodec.encodeRequest(List.of("a.b.c"));
+		byte[] truncated = new byte[valid.length - 1];
+		System.arraycopy(valid, 0, truncated, 0, truncated.length);
+		byte[] trailing = new byte[valid.length + 1];
+		System.arraycopy(valid, 0, trailing, 0, valid.length);
+		byte[] wrongVersion = valid.clone();
+		wrongVersion[0] = (byte) (IntrospectionCodec.VERSION + 1);
+
+		assertThrows(IllegalArgumentException.class, () -> IntrospectionCodec.decodeRequest(new byte[0]));
+		assertThrows(IllegalArgumentException.class, () -> IntrospectionCodec.decodeRequest(truncated));
+		assertThrows(IllegalArgumentException.class, () -> IntrospectionCodec.decodeRequest(trailing));
+		assertThrows(IllegalArgumentException.class, () -> IntrospectionCodec.decodeRequest(wrongVersion));
+		assertThrows(IllegalArgumentException.class,
+				() -> IntrospectionCodec.decodeRequest(IntrospectionCodec.encodeRequest(List.of())));
+		assertThrows(IllegalArgumentException.class,
+				() -> IntrospectionCodec.decodeRequest(IntrospectionCodec.encodeRequest(List.of(""))));
+	}
+
+	@Test
+	void requestsAboveTheTokenLimitAreRejected() {
+		List<String> atLimit = Collections.nCopies(IntrospectionCodec.MAX_TOKENS, "a.b.c");
+		List<String> aboveLimit = Collections.nCopies(IntrospectionCodec.MAX_TOKENS + 1, "a.b.c");
+
+		assertEquals(atLimit, IntrospectionCodec.decodeRequest(IntrospectionCodec.encodeRequest(atLimit)));
+		assertThrows(IllegalArgumentException.class,
+				() -> IntrospectionCodec.decodeRequest(IntrospectionCodec.encodeRequest(aboveLimit)));
+	}
+}
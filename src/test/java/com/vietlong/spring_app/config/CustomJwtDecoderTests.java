@@ -0,0 +1,161 @@
+package com.vietlong.spring_app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.vietlong.spring_app.common.JwtConstants;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.model.User;
+import com.vietlong.spring_app.repository.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:custom_jwt_decoder;DB_CLOSE_DELAY=-1;MODE=MySQL")
+class CustomJwtDecoderTests {
+
+	@Autowired
+	private CustomJwtDecoder decoder;
+
+	@Autowired
+	private JwtConfig jwtConfig;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User user;
+
+	@BeforeEach
+	void createUser() {
+		user = userRepository.save(new User("Decoder",
+				"decoder-" + UUID.randomUUID() + "@example.com", "password", Role.USER));
+	}
+
+	@Test
+	void wellFormedTokenIsAccepted() throws Exception {
+		String token = sign(JWSAlgorithm.HS512, JwtKeySet.BOOTSTRAP_KID, claims -> claims);
+
+		assertEquals(user.getEmail(), decoder.decode(token).getSubject());
+	}
+
+	@Test
+	void tamperedSignatureIsRejected() throws Exception {
+		String[] genuine = sign(JWSAlgorithm.HS512, JwtKeySet.BOOTSTRAP_KID, claims -> claims).split("\\.");
+		String[] escalated = sign(JWSAlgorithm.HS512, JwtKeySet.BOOTSTRAP_KID,
+				claims -> claims.claim(JwtConstants.SCOPE_CLAIM, Role.ADMIN.name())).split("\\.");
+
+		BadJwtException e = assertThrows(BadJwtException.class,
+				() -> decoder.decode(genuine[0] + "." + escalated[1] + "." + genuine[2]));
+		assertEquals("Token signature không hợp lệ", e.getMessage());
+	}
+
+	@Test
+	void unsignedTokenIsRejected() throws Exception {
+		String payload = sign(JWSAlgorithm.HS512, JwtKeySet.BOOTSTRAP_KID, claims -> claims).split("\\.")[1];
+		String header = base64Url("{\"alg\":\"none\"}");
+
+		assertThrows(BadJwtException.class, () -> decoder.decode(header + "." + payload + "."));
+	}
+
+	@Test
+	void weakerAlgorithmIsRejected() throws Exception {
+		String token = sign(JWSAlgorithm.HS256, JwtKeySet.BOOTSTRAP_KID, claims -> claims);
+
+		BadJwtException e = assertThrows(BadJwtException.class, () -> decoder.decode(token));
+		assertEquals("Thuật toán ký token không được hỗ trợ", e.getMessage());
+	}
+
+	@Test
+	void expiredTokenIsRejected() throws Exception {
+		Instant issuedAt = Instant.now().minus(3, ChronoUnit.HOURS);
+		String token = sign(JWSAlgorithm.HS512, JwtKeySet.BOOTSTRAP_KID, claims -> claims
+				.issueTime(Date.from(issuedAt))
+				.expirationTime(Date.from(issuedAt.plus(1, ChronoUnit.HOURS))));
+
+		assertThrows(JwtValidationException.class, () -> decoder.decode(token));
+	}
+
+	@Test
+	void wrongAudienceIsRejected() throws Exception {
+		String token = sign(JWSAlgorithm.HS512, JwtKeySet.BOOTSTRAP_KID,
+				claims -> claims.audience("https://other.example.com"));
+
+		assertThrows(JwtValidationException.class, () -> decoder.decode(token));
+	}
+
+	@Test
+	void wrongIssuerIsRejected() throws Exception {
+		String token = sign(JWSAlgorithm.HS512, JwtKeySet.BOOTSTRAP_KID,
+				claims -> claims.issuer("https://other.example.com"));
+
+		assertThrows(JwtValidationException.class, () -> decoder.decode(token));
+	}
+
+	@Test
+	void unknownKidIsRejected() throws Exception {
+		String token = sign(JWSAlgorithm.HS512, "unknown-kid", claims -> claims);
+
+		BadJwtException e = assertThrows(BadJwtException.class, () -> decoder.decode(token));
+		assertEquals("Không tìm thấy khóa ký token", e.getMessage());
+	}
+
+	@Test
+	void signerKeyShorterThan512BitsIsRejectedAtStartup() {
+		new ApplicationContextRunner()
+				.withInitializer(new ConfigDataApplicationContextInitializer())
+				.withUserConfiguration(JwtConfig.class)
+				.withPropertyValues("spring.profiles.active=test", "spring.jwt.signer-key=" + "k".repeat(63))
+				.run(context -> assertThat(context).getFailure()
+						.rootCause()
+						.hasMessage("JWT signer key must be at least 64 bytes long for HS512"));
+	}
+
+	private String sign(JWSAlgorithm algorithm, String kid, UnaryOperator<JWTClaimsSet.Builder> customizer)
+			throws Exception {
+		Instant now = Instant.now();
+		JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+				.issuer(JwtConstants.ISSUER)
+				.audience(JwtConstants.AUDIENCE)
+				.subject(user.getEmail())
+				.issueTime(Date.from(now))
+				.expirationTime(Date.from(now.plus(1, ChronoUnit.HOURS)))
+				.jwtID(UUID.randomUUID().toString())
+				.claim(JwtConstants.USER_ID_CLAIM, user.getId())
+				.claim(JwtConstants.EMAIL_CLAIM, user.getEmail())
+				.claim(JwtConstants.SCOPE_CLAIM, user.getRole().name())
+				.claim(JwtConstants.TOKEN_GENERATION_CLAIM, user.getTokenGeneration());
+		SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(kid).build(),
+				customizer.apply(claims).build());
+		byte[] secret = jwtConfig.getSignerKey().getBytes(StandardCharsets.UTF_8);
+		signedJWT.sign(new MACSigner(secret));
+		return signedJWT.serialize();
+	}
+
+	private static String base64Url(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,89 @@
+package com.vietlong.spring_app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.SignedJWT;
+import com.vietlong.spring_app.config.JwtKeySet.KeyInfo;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.model.SigningKeyStatus;
+import com.vietlong.spring_app.repository.SigningKeyRepository;
+import com.vietlong.spring_app.service.TokenIssuer;
+import com.vietlong.spring_app.support.Await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:jwt_key_set;DB_CLOSE_DELAY=-1;MODE=MySQL",
+		"spring.jwt.keys.refresh-interval=1000"
+})
+@DirtiesContext
+class JwtKeySetTests {
+
+	@Autowired
+	private JwtKeySet jwtKeySet;
+
+	@Autowired
+	private TokenIssuer tokenIssuer;
+
+	@Autowired
+	private SigningKeyRepository signingKeyRepository;
+
+	@Test
+	void rotatedKeyIsVerifyOnlyUntilPromotedAndOldTokensStayValid() throws Exception {
+		SignedJWT beforeRotation = SignedJWT.parse(issue());
+		assertEquals(JwtKeySet.BOOTSTRAP_KID, beforeRotation.getHeader().getKeyID());
+
+		KeyInfo rotated = jwtKeySet.rotate();
+		assertEquals(SigningKeyStatus.PENDING, rotated.getStatus());
+		assertEquals(JwtKeySet.BOOTSTRAP_KID, jwtKeySet.current().getKid());
+		assertNotNull(jwtKeySet.find(rotated.getKid()));
+		assertTrue(signingKeyRepository.findById(rotated.getKid()).orElseThrow().getSecret().startsWith("v1:"));
+
+		jwtKeySet.promotePendingKeys();
+		assertEquals(JwtKeySet.BOOTSTRAP_KID, jwtKeySet.current().getKid());
+
+		Await.assertEventually(() -> {
+			jwtKeySet.promotePendingKeys();
+			return rotated.getKid().equals(jwtKeySet.current().getKid());
+		}, "Pending key was not promoted");
+
+		assertEquals(SigningKeyStatus.ACTIVE,
+				signingKeyRepository.findById(rotated.getKid()).orElseThrow().getStatus());
+		assertTrue(jwtKeySet.verify(beforeRotation));
+
+		SignedJWT afterRotation = SignedJWT.parse(issue());
+		assertEquals(rotated.getKid(), afterRotation.getHeader().getKeyID());
+		assertTrue(jwtKeySet.verify(afterRotation));
+	}
+
+	@Test
+	void unknownKidIsRejected() throws Exception {
+		String[] parts = issue().split("\\.");
+		String header = new JWSHeader.Builder(JWSAlgorithm.HS512).keyID("unknown-kid").build().toBase64URL()
+				.toString();
+
+		SignedJWT forged = SignedJWT.parse(header + "." + parts[1] + "." + parts[2]);
+
+		assertNull(jwtKeySet.find("unknown-kid"));
+		assertFalse(jwtKeySet.verify(forged));
+	}
+
+	private String issue() {
+		return tokenIssuer.issue(UUID.randomUUID().toString(), "keys@example.com", Role.USER, 0L).getToken();
+	}
+}
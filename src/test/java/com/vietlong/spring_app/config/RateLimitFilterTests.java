@@ -0,0 +1,97 @@
+package com.vietlong.spring_app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class RateLimitFilterTests {
+
+	private static final String LOGIN_PATH = "/api/auth/login";
+	private static final String PROXY = "10.0.0.5";
+
+	@Test
+	void forwardedClientsBehindOneProxyGetSeparateBuckets() throws Exception {
+		RateLimitFilter filter = filter();
+
+		MockHttpServletResponse first = send(filter, "203.0.113.10");
+		MockHttpServletResponse second = send(filter, "198.51.100.20");
+
+		assertEquals(HttpStatus.OK.value(), first.getStatus());
+		assertEquals(HttpStatus.OK.value(), second.getStatus());
+		assertEquals("0", first.getHeader(RateLimitFilter.REMAINING_HEADER));
+		assertEquals("0", second.getHeader(RateLimitFilter.REMAINING_HEADER));
+	}
+
+	@Test
+	void exhaustedBucketReturns429WithRetryAfter() throws Exception {
+		RateLimitFilter filter = filter();
+
+		MockHttpServletResponse allowed = send(filter, "203.0.113.10");
+		MockHttpServletResponse rejected = send(filter, "203.0.113.10");
+
+		assertEquals(HttpStatus.OK.value(), allowed.getStatus());
+		assertNull(allowed.getHeader(RateLimitFilter.RETRY_AFTER_HEADER));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+		assertNotNull(rejected.getHeader(RateLimitFilter.RETRY_AFTER_HEADER));
+		long retryAfter = Long.parseLong(rejected.getHeader(RateLimitFilter.RETRY_AFTER_HEADER));
+		assertTrue(retryAfter >= 1 && retryAfter <= 60);
+		assertEquals("1", rejected.getHeader(RateLimitFilter.LIMIT_HEADER));
+	}
+
+	@Test
+	void forwardedHeaderFromUntrustedPeerIsIgnored() throws Exception {
+		RateLimitFilter filter = filter();
+
+		MockHttpServletRequest first = request("192.0.2.1", "203.0.113.10");
+		MockHttpServletRequest spoofed = request("192.0.2.1", "198.51.100.20");
+		MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+		MockHttpServletResponse spoofedResponse = new MockHttpServletResponse();
+		filter.doFilter(first, firstResponse, new MockFilterChain());
+		filter.doFilter(spoofed, spoofedResponse, new MockFilterChain());
+
+		assertEquals(HttpStatus.OK.value(), firstResponse.getStatus());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), spoofedResponse.getStatus());
+	}
+
+	private static RateLimitFilter filter() {
+		RateLimitConfig config = mock(RateLimitConfig.class);
+		when(config.getMaxBuckets()).thenReturn(1000L);
+		when(config.getIdleTimeout()).thenReturn(600000L);
+		when(config.getLoginCapacity()).thenReturn(1);
+		when(config.getLoginRefillPerMinute()).thenReturn(1);
+		when(config.getRegisterCapacity()).thenReturn(1);
+		when(config.getRegisterRefillPerMinute()).thenReturn(1);
+		when(config.getIntrospectCapacity()).thenReturn(1);
+		when(config.getIntrospectRefillPerMinute()).thenReturn(1);
+		when(config.getIntrospectBatchCapacity()).thenReturn(1);
+		when(config.getIntrospectBatchRefillPerMinute()).thenReturn(1);
+
+		ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+		return new RateLimitFilter(config, new ClientIpResolver(PROXY + "/32"), objectMapper);
+	}
+
+	private static MockHttpServletResponse send(RateLimitFilter filter, String client) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request(PROXY, client), response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", LOGIN_PATH);
+		request.setServletPath(LOGIN_PATH);
+		request.setRemoteAddr(remoteAddr);
+		request.addHeader(ClientIpResolver.FORWARDED_FOR_HEADER, forwardedFor);
+		return request;
+	}
+}
@@ -0,0 +1,28 @@
+package com.vietlong.spring_app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.vietlong.spring_app.service.AuthService;
+import com.vietlong.spring_app.service.TokenBlacklistService;
+
+class AuthControllerTests {
+
+	@Test
+	void malformedBinaryFrameIsAPlainBadRequest() {
+		AuthService authService = mock(AuthService.class);
+		AuthController controller = new AuthController(authService, mock(TokenBlacklistService.class));
+
+		ResponseEntity<byte[]> response = controller.introspectTokensBinary(new byte[] { 9, 0 });
+
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		assertNull(response.getBody());
+		verifyNoInteractions(authService);
+	}
+}
@@ -0,0 +1,97 @@
+package com.vietlong.spring_app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.vietlong.spring_app.common.IntrospectionCodec;
+import com.vietlong.spring_app.dto.response.IntrospectTokenResponse;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.model.User;
+import com.vietlong.spring_app.repository.UserRepository;
+import com.vietlong.spring_app.service.TokenIssuer;
+
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:introspection_benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL",
+		"spring.rate-limit.enabled=false"
+})
+class IntrospectionProtocolBenchmark {
+
+	private static final int WARMUP_ITERATIONS = 2_000;
+	private static final int MEASURED_ITERATIONS = 10_000;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TokenIssuer tokenIssuer;
+
+	@Test
+	void jsonVersusBinaryIntrospection() throws Exception {
+		User user = userRepository
+				.save(new User("Benchmark", "introspection-benchmark@vietlong.com", "password", Role.USER));
+		String token = tokenIssuer.issue(user).getToken();
+		String baseUrl = "http://localhost:" + port + "/api/auth/introspect";
+
+		HttpClient client = HttpClient.newHttpClient();
+		HttpRequest jsonRequest = HttpRequest.newBuilder(URI.create(baseUrl))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"token\":\"" + token + "\"}"))
+				.build();
+		HttpRequest binaryRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/binary"))
+				.header("Content-Type", IntrospectionCodec.MEDIA_TYPE)
+				.header("Accept", IntrospectionCodec.MEDIA_TYPE)
+				.POST(HttpRequest.BodyPublishers.ofByteArray(IntrospectionCodec.encodeRequest(List.of(token))))
+				.build();
+
+		HttpResponse<byte[]> jsonSample = client.send(jsonRequest, HttpResponse.BodyHandlers.ofByteArray());
+		HttpResponse<byte[]> binarySample = client.send(binaryRequest, HttpResponse.BodyHandlers.ofByteArray());
+		assertEquals(200, jsonSample.statusCode());
+		assertEquals(200, binarySample.statusCode());
+		List<IntrospectTokenResponse> decoded = IntrospectionCodec.decodeResponse(binarySample.body());
+		assertEquals(1, decoded.size());
+		assertTrue(decoded.get(0).getIsValid());
+		assertEquals(user.getEmail(), decoded.get(0).getUsername());
+
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			client.send(jsonRequest, HttpResponse.BodyHandlers.ofByteArray());
+			client.send(binaryRequest, HttpResponse.BodyHandlers.ofByteArray());
+		}
+
+		long jsonNanos = measure(client, jsonRequest);
+		long binaryNanos = measure(client, binaryRequest);
+
+		System.out.printf("Introspection - JSON: %.1f us/op, %d bytes; binary: %.1f us/op, %d bytes (%.2fx smaller)%n",
+				jsonNanos / 1e3 / MEASURED_ITERATIONS, jsonSample.body().length,
+				binaryNanos / 1e3 / MEASURED_ITERATIONS, binarySample.body().length,
+				(double) jsonSample.body().length / binarySample.body().length);
+	}
+
+	private static long measure(HttpClient client, HttpRequest request) throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		}
+		return System.nanoTime() - start;
+	}
+}
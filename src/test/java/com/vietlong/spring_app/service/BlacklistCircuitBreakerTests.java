@@ -0,0 +1,122 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.service.BlacklistCircuitBreaker.State;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BlacklistCircuitBreakerTests {
+
+	private static final int FAILURE_THRESHOLD = 3;
+	private static final long OPEN_DURATION = 100L;
+
+	@Test
+	void breakerOpensHalfOpensAndClosesAgain() throws Exception {
+		BlacklistCircuitBreaker breaker = breaker(4);
+
+		for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+			assertEquals(State.CLOSED, breaker.getState());
+			assertTrue(breaker.allowRequest());
+			assertThrows(IllegalStateException.class, () -> breaker.execute(BlacklistCircuitBreakerTests::fail));
+		}
+		assertEquals(State.OPEN, breaker.getState());
+		assertFalse(breaker.allowRequest());
+
+		Thread.sleep(OPEN_DURATION + 50);
+		assertTrue(breaker.allowRequest());
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.allowRequest());
+
+		assertEquals("ok", breaker.execute(() -> "ok"));
+		assertEquals(State.CLOSED, breaker.getState());
+		assertEquals(0, breaker.getStats().getConsecutiveFailures());
+		assertEquals(1, breaker.getStats().getOpenedTransitions());
+		assertEquals(1, breaker.getStats().getHalfOpenedTransitions());
+		assertEquals(1, breaker.getStats().getClosedTransitions());
+		breaker.shutdown();
+	}
+
+	@Test
+	void failedTrialCallReopensTheBreaker() throws Exception {
+		BlacklistCircuitBreaker breaker = breaker(4);
+		for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+			assertThrows(IllegalStateException.class, () -> breaker.execute(BlacklistCircuitBreakerTests::fail));
+		}
+
+		Thread.sleep(OPEN_DURATION + 50);
+		assertTrue(breaker.allowRequest());
+		assertThrows(IllegalStateException.class, () -> breaker.execute(BlacklistCircuitBreakerTests::fail));
+
+		assertEquals(State.OPEN, breaker.getState());
+		assertFalse(breaker.allowRequest());
+		assertEquals(2, breaker.getStats().getOpenedTransitions());
+		breaker.shutdown();
+	}
+
+	@Test
+	void saturatedExecutorIsCountedSeparatelyAndDoesNotTripTheBreaker() throws Exception {
+		BlacklistCircuitBreaker breaker = breaker(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread running = blockedCaller(breaker, release);
+		Thread queued = blockedCaller(breaker, release);
+
+		for (int i = 0; i < FAILURE_THRESHOLD * 2; i++) {
+			assertThrows(RejectedExecutionException.class, () -> breaker.execute(() -> true));
+		}
+
+		assertEquals(State.CLOSED, breaker.getState());
+		assertEquals(0, breaker.getStats().getConsecutiveFailures());
+		assertEquals(0, breaker.getStats().getFailedCalls());
+		assertEquals(FAILURE_THRESHOLD * 2, breaker.getStats().getRejectedCalls());
+
+		release.countDown();
+		running.join(5_000);
+		queued.join(5_000);
+		assertEquals(2, breaker.getStats().getSuccessfulCalls());
+		breaker.shutdown();
+	}
+
+	private static BlacklistCircuitBreaker breaker(int maxConcurrentCalls) {
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.getBlacklistBreakerTimeout()).thenReturn(5_000L);
+		when(jwtConfig.getBlacklistBreakerFailureThreshold()).thenReturn(FAILURE_THRESHOLD);
+		when(jwtConfig.getBlacklistBreakerOpenDuration()).thenReturn(OPEN_DURATION);
+		when(jwtConfig.getBlacklistBreakerMaxConcurrentCalls()).thenReturn(maxConcurrentCalls);
+		return new BlacklistCircuitBreaker(jwtConfig, new SimpleMeterRegistry());
+	}
+
+	private static Thread blockedCaller(BlacklistCircuitBreaker breaker, CountDownLatch release)
+			throws InterruptedException {
+		Thread caller = new Thread(() -> {
+			try {
+				breaker.execute(() -> release.await(5, TimeUnit.SECONDS));
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		caller.start();
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (caller.getState() != Thread.State.TIMED_WAITING) {
+			assertTrue(System.currentTimeMillis() < deadline, "Caller did not reach the breaker");
+			Thread.sleep(10);
+		}
+		return caller;
+	}
+
+	private static Object fail() {
+		throw new IllegalStateException("database down");
+	}
+}
@@ -0,0 +1,93 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.vietlong.spring_app.common.TimeConstants;
+import com.vietlong.spring_app.repository.BlacklistedTokenRepository;
+
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:blacklist_concurrency;DB_CLOSE_DELAY=-1;MODE=MySQL")
+class BlacklistConcurrencyBenchmark {
+
+	private static final int LOGOUTS_PER_THREAD = 2_000;
+	private static final int DUPLICATE_LOGOUTS = 64;
+
+	@Autowired
+	private TokenBlacklistService tokenBlacklistService;
+
+	@Autowired
+	private BlacklistedTokenRepository blacklistedTokenRepository;
+
+	@Test
+	void logoutThroughputScalesWithThreads() throws Exception {
+		Date expirationTime = new Date(System.currentTimeMillis() + TimeConstants.MILLISECONDS_PER_HOUR);
+
+		String duplicateUser = "duplicate-" + UUID.randomUUID();
+		String duplicateJti = UUID.randomUUID().toString();
+		run(DUPLICATE_LOGOUTS, 1, ignored -> duplicateJti, duplicateUser, tokenBlacklistService, expirationTime);
+		assertEquals(1, blacklistedTokenRepository.countByUserId(duplicateUser));
+
+		run(1, LOGOUTS_PER_THREAD / 4, ignored -> UUID.randomUUID().toString(), "warmup",
+				tokenBlacklistService, expirationTime);
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		double baseline = 0;
+		for (int threads = 1; threads <= Math.max(2, cores * 2); threads *= 2) {
+			String userId = "benchmark-" + threads;
+			long nanos = run(threads, LOGOUTS_PER_THREAD, ignored -> UUID.randomUUID().toString(), userId,
+					tokenBlacklistService, expirationTime);
+			double opsPerSecond = (double) threads * LOGOUTS_PER_THREAD * 1e9 / nanos;
+			if (threads == 1) {
+				baseline = opsPerSecond;
+			}
+			assertEquals((long) threads * LOGOUTS_PER_THREAD, blacklistedTokenRepository.countByUserId(userId));
+			System.out.printf("Logout - %2d threads: %8.0f ops/s (%.2fx)%n", threads, opsPerSecond,
+					opsPerSecond / baseline);
+		}
+	}
+
+	private static long run(int threads, int logoutsPerThread, IntFunction<String> jtiSupplier,
+			String userId, TokenBlacklistService tokenBlacklistService, Date expirationTime) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < logoutsPerThread; i++) {
+						tokenBlacklistService.blacklistToken(jtiSupplier.apply(i), userId, expirationTime, "LOGOUT");
+					}
+					return null;
+				}));
+			}
+			long startedAt = System.nanoTime();
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return System.nanoTime() - startedAt;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
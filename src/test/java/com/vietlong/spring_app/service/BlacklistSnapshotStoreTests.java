@@ -0,0 +1,86 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.service.BlacklistSnapshotStore.Snapshot;
+
+class BlacklistSnapshotStoreTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void writtenSnapshotIsReadBack() throws Exception {
+		Path file = directory.resolve("nested/blacklist.snapshot");
+		BlacklistSnapshotStore store = store(file);
+		long[] entries = { 11L, 1_000L, 22L, 2_000L };
+		long before = System.currentTimeMillis();
+
+		store.write(42L, entries);
+		Snapshot snapshot = store.read();
+
+		assertEquals(42L, snapshot.getSequence());
+		assertArrayEquals(entries, snapshot.getEntries());
+		assertTrue(snapshot.getCreatedAtMillis() >= before);
+		assertFalse(Files.exists(file.resolveSibling("blacklist.snapshot.tmp")));
+	}
+
+	@Test
+	void newerSnapshotReplacesTheOlderOne() throws Exception {
+		BlacklistSnapshotStore store = store(directory.resolve("blacklist.snapshot"));
+
+		store.write(1L, new long[] { 11L, 1_000L, 22L, 2_000L });
+		store.write(2L, new long[0]);
+		Snapshot snapshot = store.read();
+
+		assertEquals(2L, snapshot.getSequence());
+		assertEquals(0, snapshot.getEntries().length);
+	}
+
+	@Test
+	void missingSnapshotReadsAsNull() {
+		assertNull(store(directory.resolve("absent.snapshot")).read());
+	}
+
+	@Test
+	void foreignFileIsIgnored() throws Exception {
+		Path file = directory.resolve("blacklist.snapshot");
+		Files.write(file, new byte[64]);
+
+		assertNull(store(file).read());
+	}
+
+	@Test
+	void truncatedSnapshotIsIgnored() throws Exception {
+		Path file = directory.resolve("blacklist.snapshot");
+		BlacklistSnapshotStore store = store(file);
+		store.write(7L, new long[] { 11L, 1_000L, 22L, 2_000L });
+		byte[] bytes = Files.readAllBytes(file);
+
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+		assertNull(store.read());
+
+		Files.write(file, Arrays.copyOf(bytes, 16));
+		assertNull(store.read());
+	}
+
+	private static BlacklistSnapshotStore store(Path file) {
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.getBlacklistSnapshotPath()).thenReturn(file.toString());
+		return new BlacklistSnapshotStore(jwtConfig);
+	}
+}
@@ -0,0 +1,178 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.vietlong.spring_app.common.TimeConstants;
+import com.vietlong.spring_app.repository.ActiveTokenRepository;
+import com.vietlong.spring_app.repository.BlacklistedTokenRepository;
+import com.vietlong.spring_app.support.TestNodes;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:bucketed_token_store;DB_CLOSE_DELAY=-1;MODE=MySQL",
+		"spring.jwt.storage.layout=bucketed",
+		"spring.jwt.storage.bucket-granularity=hourly"
+})
+@DirtiesContext
+class BucketedTokenStoreTests {
+
+	@Autowired
+	private TokenBlacklistService tokenBlacklistService;
+
+	@Autowired
+	private TokenStore tokenStore;
+
+	@Autowired
+	private BlacklistedTokenRepository blacklistedTokenRepository;
+
+	@Autowired
+	private ActiveTokenRepository activeTokenRepository;
+
+	@Test
+	void expiredBucketsAreDroppedWhole() throws Exception {
+		String userId = "bucket-" + UUID.randomUUID();
+		String activeJti = UUID.randomUUID().toString();
+		String revokedJti = UUID.randomUUID().toString();
+		Date expirationTime = new Date(System.currentTimeMillis() + TimeConstants.MILLISECONDS_PER_HOUR / 2);
+		LocalDateTime expiresAt = toLocalDateTime(expirationTime);
+
+		tokenBlacklistService.saveActiveToken(activeJti, userId, expirationTime, "test");
+		tokenBlacklistService.saveActiveToken(revokedJti, userId, expirationTime, "test");
+		tokenBlacklistService.blacklistToken(revokedJti, userId, expirationTime, "LOGOUT");
+
+		assertTrue(tokenStore.isBlacklisted(revokedJti, expiresAt));
+		assertEquals(List.of(revokedJti), tokenStore.findBlacklistedJtis(Map.of(activeJti, expiresAt,
+				revokedJti, expiresAt)));
+		assertTrue(blacklistedTokenRepository.existsByJti(revokedJti));
+		assertEquals(1, activeTokenRepository.findByUserId(userId).size());
+
+		LocalDateTime afterExpiry = LocalDateTime.now().plusHours(2);
+		assertEquals(1, tokenStore.expireBlacklistedTokens(afterExpiry));
+		assertEquals(1, tokenStore.expireActiveTokens(afterExpiry));
+
+		assertFalse(tokenStore.isBlacklisted(revokedJti, expiresAt));
+		assertFalse(blacklistedTokenRepository.existsByJti(revokedJti));
+		assertTrue(activeTokenRepository.findByUserId(userId).isEmpty());
+		assertTrue(tokenStore.getStats().getDroppedBuckets() >= 2);
+	}
+
+	@Test
+	void requestPathNeverCreatesBuckets() {
+		int activeBuckets = tokenStore.getStats().getActiveBuckets();
+		LocalDateTime beyondHorizon = LocalDateTime.now().plusYears(1);
+
+		assertThrows(IllegalStateException.class, () -> tokenStore.activeTokensTable(beyondHorizon));
+		assertThrows(IllegalStateException.class, () -> tokenStore.insertBlacklistedToken(
+				UUID.randomUUID().toString(), "bucket-user", beyondHorizon, LocalDateTime.now(), "LOGOUT"));
+		assertEquals(activeBuckets, tokenStore.getStats().getActiveBuckets());
+	}
+
+	@Test
+	void restartOnTheSameDatabaseReusesBucketsAndViews() throws Exception {
+		String userId = "bucket-" + UUID.randomUUID();
+		String activeJti = UUID.randomUUID().toString();
+		String revokedJti = UUID.randomUUID().toString();
+		Date expirationTime = new Date(System.currentTimeMillis() + TimeConstants.MILLISECONDS_PER_HOUR);
+		LocalDateTime expiresAt = toLocalDateTime(expirationTime);
+
+		try (ConfigurableApplicationContext context = bucketedContext("bucketed_token_store_restart")) {
+			TokenBlacklistService firstNode = context.getBean(TokenBlacklistService.class);
+			firstNode.saveActiveToken(activeJti, userId, expirationTime, "test");
+			firstNode.saveActiveToken(revokedJti, userId, expirationTime, "test");
+			firstNode.blacklistToken(revokedJti, userId, expirationTime, "LOGOUT");
+		}
+
+		try (ConfigurableApplicationContext context = bucketedContext("bucketed_token_store_restart")) {
+			TokenBlacklistService restartedNode = context.getBean(TokenBlacklistService.class);
+			TokenStore restartedStore = context.getBean(TokenStore.class);
+
+			assertTrue(restartedStore.getStats().getActiveBuckets() > 0);
+			assertTrue(restartedStore.isBlacklisted(revokedJti, expiresAt));
+			assertTrue(context.getBean(BlacklistedTokenRepository.class).existsByJti(revokedJti));
+			assertEquals(1, context.getBean(ActiveTokenRepository.class).findByUserId(userId).size());
+
+			String newJti = UUID.randomUUID().toString();
+			restartedNode.saveActiveToken(newJti, userId, expirationTime, "test");
+			restartedNode.blacklistToken(newJti, userId, expirationTime, "LOGOUT");
+			assertTrue(restartedStore.isBlacklisted(newJti, expiresAt));
+			assertEquals(1, context.getBean(ActiveTokenRepository.class).findByUserId(userId).size());
+		}
+	}
+
+	@Test
+	void lookupsAreRoutedToTheExpiryBucket() throws Exception {
+		String userId = "bucket-" + UUID.randomUUID();
+		String jti = UUID.randomUUID().toString();
+		Date expirationTime = new Date(System.currentTimeMillis() + TimeConstants.MILLISECONDS_PER_HOUR * 2);
+		LocalDateTime expiresAt = toLocalDateTime(expirationTime);
+
+		tokenBlacklistService.blacklistToken(jti, userId, expirationTime, "LOGOUT");
+
+		assertTrue(tokenStore.isBlacklisted(jti, expiresAt));
+		assertFalse(tokenStore.isBlacklisted(jti, expiresAt.minusHours(1)));
+		assertTrue(tokenStore.isBlacklisted(jti, null));
+		assertFalse(tokenStore.isBlacklisted(jti, LocalDateTime.now().plusYears(1)));
+		assertEquals(List.of(jti), tokenStore.findBlacklistedJtis(Collections.singletonMap(jti, null)));
+	}
+
+	@Test
+	void plainTableIsMigratedOnlyOnceTheForeignLeaseExpires() throws Exception {
+		String database = "bucketed_token_store_migration";
+		String jti = UUID.randomUUID().toString();
+		LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(30);
+		LocalDateTime foreignLeaseExpiry;
+
+		try (ConfigurableApplicationContext context = TestNodes.start(database)) {
+			JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+			jdbcTemplate.update("INSERT INTO blacklisted_tokens (id, jti, user_id, expires_at, blacklisted_at, reason) "
+					+ "VALUES (?, ?, ?, ?, ?, ?)", UUID.randomUUID().toString(), jti, "bucket-user",
+					Timestamp.valueOf(expiresAt), Timestamp.valueOf(LocalDateTime.now()), "LOGOUT");
+			LocalDateTime now = LocalDateTime.now();
+			foreignLeaseExpiry = now.plusSeconds(3);
+			jdbcTemplate.update("INSERT INTO token_purge_checkpoints (target, cutoff, deleted_count, chunk_count, "
+					+ "started_at, lease_owner, lease_expires_at, version, updated_at) "
+					+ "VALUES ('BUCKET_MIGRATION', ?, 0, 0, ?, 'other-node', ?, 0, ?)", Timestamp.valueOf(now),
+					Timestamp.valueOf(now), Timestamp.valueOf(foreignLeaseExpiry), Timestamp.valueOf(now));
+		}
+
+		try (ConfigurableApplicationContext context = bucketedContext(database)) {
+			assertTrue(context.getBean(TokenStore.class).isBlacklisted(jti, expiresAt));
+			Map<String, Object> lease = context.getBean(JdbcTemplate.class).queryForMap("SELECT lease_owner, "
+					+ "completed_at FROM token_purge_checkpoints WHERE target = 'BUCKET_MIGRATION'");
+			assertNull(lease.get("lease_owner"));
+			assertFalse(((Timestamp) lease.get("completed_at")).toLocalDateTime().isBefore(foreignLeaseExpiry));
+		}
+	}
+
+	private static LocalDateTime toLocalDateTime(Date date) {
+		return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+	}
+
+	private static ConfigurableApplicationContext bucketedContext(String database) {
+		return TestNodes.start(database, "spring.jwt.storage.layout=bucketed",
+				"spring.jwt.storage.bucket-granularity=hourly");
+	}
+}
@@ -0,0 +1,72 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.repository.RevocationEventRepository;
+
+class DatabaseRevocationEventBusTests {
+
+	@Test
+	void localDispatchWaitsForTheCommit() {
+		DatabaseRevocationEventBus bus = new DatabaseRevocationEventBus(mock(RevocationEventRepository.class),
+				jwtConfig());
+		List<RevocationEvent> received = new ArrayList<>();
+		bus.subscribe(received::add);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			bus.publish(new RevocationEvent("jti", "user", LocalDateTime.now().plusHours(1)));
+			assertTrue(received.isEmpty());
+
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCommit();
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals(1, received.size());
+	}
+
+	@Test
+	void cursorIsHeldOnceTheGapLimitIsReached() {
+		RevocationEventRepository repository = mock(RevocationEventRepository.class);
+		RevocationEvent farAhead = new RevocationEvent("jti", "user", LocalDateTime.now().plusHours(1));
+		farAhead.setId(50_000L);
+		farAhead.setOriginNode("other-node");
+		when(repository.findAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(farAhead));
+		DatabaseRevocationEventBus bus = new DatabaseRevocationEventBus(repository, jwtConfig());
+		List<RevocationEvent> received = new ArrayList<>();
+		bus.subscribe(received::add);
+
+		bus.poll();
+		bus.poll();
+
+		assertTrue(received.isEmpty());
+		assertEquals(10_000L, bus.getStats().getLastSequence());
+		assertEquals(0L, bus.getSafeSequence());
+	}
+
+	private static JwtConfig jwtConfig() {
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.getRevocationBatchSize()).thenReturn(100);
+		when(jwtConfig.getRevocationGapGrace()).thenReturn(60_000L);
+		return jwtConfig;
+	}
+}
@@ -0,0 +1,144 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.dto.request.IntrospectTokenRequest;
+import com.vietlong.spring_app.dto.response.IntrospectTokenResponse;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.model.User;
+import com.vietlong.spring_app.repository.UserRepository;
+import com.vietlong.spring_app.service.TokenIssuer.IssuedToken;
+import com.vietlong.spring_app.support.Await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:introspection_cache;DB_CLOSE_DELAY=-1;MODE=MySQL")
+class IntrospectionCacheTests {
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private TokenBlacklistService tokenBlacklistService;
+
+	@Autowired
+	private TokenIssuer tokenIssuer;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private IntrospectionCache introspectionCache;
+
+	@Autowired
+	private BlacklistReplica blacklistReplica;
+
+	@Autowired
+	private JwtConfig jwtConfig;
+
+	@BeforeEach
+	void awaitReplica() throws InterruptedException {
+		Await.assertEventually(blacklistReplica::isFresh, "Blacklist replica chưa sẵn sàng");
+	}
+
+	@Test
+	void blacklistedTokenIsInvalidOnTheNextIntrospection() throws Exception {
+		User user = userRepository.save(new User("Introspect", "introspect-" + UUID.randomUUID() + "@example.com",
+				"password", Role.USER));
+		IssuedToken issuedToken = tokenIssuer.issue(user);
+		IntrospectTokenRequest request = new IntrospectTokenRequest();
+		request.setToken(issuedToken.getToken());
+
+		assertTrue(authService.introspectToken(request).getIsValid());
+		assertTrue(authService.introspectToken(request).getIsValid());
+
+		tokenBlacklistService.blacklistToken(issuedToken.getJti(), user.getId(), issuedToken.getExpiresAt(), "LOGOUT");
+
+		assertFalse(authService.introspectToken(request).getIsValid());
+	}
+
+	@Test
+	void cachedEntryIsRejectedOnceTheReplicaHoldsItsJti() {
+		String jti = UUID.randomUUID().toString();
+		String digest = "digest-" + jti;
+		IntrospectTokenResponse response = validResponse(jti);
+		introspectionCache.putValid(digest, response, null, 0L, Instant.now(), Instant.now().plus(1, ChronoUnit.HOURS));
+		assertEquals(response, introspectionCache.get(digest));
+
+		blacklistReplica.add(jti, LocalDateTime.now().plusHours(1));
+
+		assertNotEquals(response, introspectionCache.get(digest));
+	}
+
+	@Test
+	void putAfterConcurrentRevocationIsStoredAsInvalid() {
+		String jti = UUID.randomUUID().toString();
+		String digest = "digest-" + jti;
+		blacklistReplica.add(jti, LocalDateTime.now().plusHours(1));
+
+		IntrospectTokenResponse stored = introspectionCache.putValid(digest, validResponse(jti), null, 0L,
+				Instant.now(), Instant.now().plus(1, ChronoUnit.HOURS));
+
+		assertFalse(stored.getIsValid());
+		assertFalse(introspectionCache.get(digest).getIsValid());
+	}
+
+	@Test
+	void cachedEntryIsAMissWhileTheReplicaIsStale() {
+		BlacklistReplica staleReplica = mock(BlacklistReplica.class);
+		IntrospectionCache cache = new IntrospectionCache(jwtConfig, mock(TokenGenerationService.class),
+				mock(RevocationWatermarkService.class), staleReplica, mock(RevocationEventBus.class));
+		String jti = UUID.randomUUID().toString();
+		IntrospectTokenResponse response = validResponse(jti);
+		cache.putValid("digest-" + jti, response, null, 0L, Instant.now(), Instant.now().plus(1, ChronoUnit.HOURS));
+
+		when(staleReplica.isFresh()).thenReturn(false);
+		assertNull(cache.get("digest-" + jti));
+
+		when(staleReplica.isFresh()).thenReturn(true);
+		assertEquals(response, cache.get("digest-" + jti));
+	}
+
+	@Test
+	void generationLookupFailureIsAMiss() {
+		BlacklistReplica freshReplica = mock(BlacklistReplica.class);
+		when(freshReplica.isFresh()).thenReturn(true);
+		TokenGenerationService unavailable = mock(TokenGenerationService.class);
+		when(unavailable.isCurrent(anyString(), anyLong())).thenThrow(new IllegalStateException("database down"));
+		IntrospectionCache cache = new IntrospectionCache(jwtConfig, unavailable,
+				mock(RevocationWatermarkService.class), freshReplica, mock(RevocationEventBus.class));
+		String jti = UUID.randomUUID().toString();
+		cache.putValid("digest-" + jti, validResponse(jti), "user-" + jti, 0L, Instant.now(),
+				Instant.now().plus(1, ChronoUnit.HOURS));
+
+		assertNull(cache.get("digest-" + jti));
+	}
+
+	private static IntrospectTokenResponse validResponse(String jti) {
+		return IntrospectTokenResponse.builder()
+				.isValid(true)
+				.jti(jti)
+				.build();
+	}
+}
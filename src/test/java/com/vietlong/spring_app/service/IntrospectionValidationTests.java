@@ -0,0 +1,109 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.vietlong.spring_app.common.JwtConstants;
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.config.JwtKeySet;
+import com.vietlong.spring_app.dto.request.IntrospectTokenRequest;
+import com.vietlong.spring_app.dto.response.IntrospectTokenResponse;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.model.User;
+import com.vietlong.spring_app.repository.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:introspection_validation;DB_CLOSE_DELAY=-1;MODE=MySQL")
+class IntrospectionValidationTests {
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private JwtConfig jwtConfig;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User user;
+
+	@BeforeEach
+	void createUser() {
+		user = userRepository.save(new User("Introspect",
+				"introspect-" + UUID.randomUUID() + "@example.com", "password", Role.USER));
+	}
+
+	@Test
+	void wellFormedTokenIsValid() throws Exception {
+		assertTrue(introspect(sign(claims -> claims)).getIsValid());
+	}
+
+	@Test
+	void wrongIssuerIsInvalid() throws Exception {
+		String token = sign(claims -> claims.issuer("https://other.example.com"));
+
+		assertFalse(introspect(token).getIsValid());
+		assertFalse(authService.introspectTokens(List.of(token)).get(0).getIsValid());
+	}
+
+	@Test
+	void tokenNotYetValidIsInvalid() throws Exception {
+		String token = sign(claims -> claims.notBeforeTime(Date.from(Instant.now().plus(10, ChronoUnit.MINUTES))));
+
+		assertFalse(introspect(token).getIsValid());
+		assertFalse(authService.introspectTokens(List.of(token)).get(0).getIsValid());
+	}
+
+	@Test
+	void wrongAudienceIsInvalid() throws Exception {
+		String token = sign(claims -> claims.audience("https://other.example.com"));
+
+		assertFalse(introspect(token).getIsValid());
+	}
+
+	private IntrospectTokenResponse introspect(String token) {
+		IntrospectTokenRequest request = new IntrospectTokenRequest();
+		request.setToken(token);
+		return authService.introspectToken(request);
+	}
+
+	private String sign(UnaryOperator<JWTClaimsSet.Builder> customizer) throws Exception {
+		Instant now = Instant.now();
+		JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+				.issuer(JwtConstants.ISSUER)
+				.audience(JwtConstants.AUDIENCE)
+				.subject(user.getEmail())
+				.issueTime(Date.from(now))
+				.expirationTime(Date.from(now.plus(1, ChronoUnit.HOURS)))
+				.jwtID(UUID.randomUUID().toString())
+				.claim(JwtConstants.USER_ID_CLAIM, user.getId())
+				.claim(JwtConstants.EMAIL_CLAIM, user.getEmail())
+				.claim(JwtConstants.SCOPE_CLAIM, user.getRole().name())
+				.claim(JwtConstants.TOKEN_GENERATION_CLAIM, user.getTokenGeneration());
+		SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.HS512)
+				.keyID(JwtKeySet.BOOTSTRAP_KID).build(), customizer.apply(claims).build());
+		signedJWT.sign(new MACSigner(jwtConfig.getSignerKey().getBytes(StandardCharsets.UTF_8)));
+		return signedJWT.serialize();
+	}
+}
@@ -0,0 +1,117 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class JtiExpiryTableTests {
+
+	private static final long NOW = 60_000_000L;
+	private static final int CAPACITY = 1 << 12;
+	private static final long LATER = NOW + 6_000;
+
+	@Test
+	void collidingHashesAreAllFoundAndSurviveADelete() {
+		JtiExpiryTable table = new JtiExpiryTable();
+		long first = 5L;
+		long second = first + CAPACITY;
+		long third = second + CAPACITY;
+		table.put(first, NOW + 30);
+		table.put(second, LATER);
+		table.put(third, LATER);
+
+		assertTrue(table.contains(first, NOW));
+		assertTrue(table.contains(second, NOW));
+		assertTrue(table.contains(third, NOW));
+		assertFalse(table.contains(third + CAPACITY, NOW));
+
+		assertEquals(1, table.expire(NOW + 60));
+
+		assertFalse(table.contains(first, NOW + 60));
+		assertTrue(table.contains(second, NOW + 60));
+		assertTrue(table.contains(third, NOW + 60));
+		assertEquals(2, table.size());
+	}
+
+	@Test
+	void deleteShiftsBackEntriesThatWrapPastTheEndOfTheTable() {
+		JtiExpiryTable table = new JtiExpiryTable();
+		long lastSlot = CAPACITY - 1;
+		long wrapped = lastSlot + CAPACITY;
+		long wrappedTwice = wrapped + CAPACITY;
+		long homeAtZero = 4L * CAPACITY;
+		table.put(lastSlot, NOW + 30);
+		table.put(wrapped, LATER);
+		table.put(wrappedTwice, NOW + 30);
+		table.put(homeAtZero, LATER);
+
+		assertEquals(2, table.expire(NOW + 60));
+
+		assertFalse(table.contains(lastSlot, NOW + 60));
+		assertFalse(table.contains(wrappedTwice, NOW + 60));
+		assertTrue(table.contains(wrapped, NOW + 60));
+		assertTrue(table.contains(homeAtZero, NOW + 60));
+		assertEquals(2, table.size());
+	}
+
+	@Test
+	void tableGrowsPastHalfLoadWithoutLosingEntries() {
+		JtiExpiryTable table = new JtiExpiryTable();
+		long initialBytes = table.estimatedBytes();
+		int entries = CAPACITY;
+
+		for (long hash = 1; hash <= entries; hash++) {
+			table.put(hash * 31, LATER);
+		}
+
+		assertEquals(entries, table.size());
+		assertTrue(table.estimatedBytes() > initialBytes);
+		for (long hash = 1; hash <= entries; hash++) {
+			assertTrue(table.contains(hash * 31, NOW));
+		}
+	}
+
+	@Test
+	void wheelExpiresEntriesOnceTheirTickHasPassed() {
+		JtiExpiryTable table = new JtiExpiryTable();
+		table.put(11L, NOW + 30);
+		table.put(12L, NOW + 600);
+
+		assertEquals(0, table.expire(NOW + 30));
+		assertFalse(table.contains(11L, NOW + 30));
+		assertEquals(2, table.size());
+
+		assertEquals(1, table.expire(NOW + 60));
+		assertEquals(1, table.size());
+		assertEquals(1, table.expire(NOW + 660));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	void extendedExpiryIsRescheduledInsteadOfRemoved() {
+		JtiExpiryTable table = new JtiExpiryTable();
+		table.put(21L, NOW + 30);
+		table.put(21L, NOW + 600);
+
+		assertEquals(0, table.expire(NOW + 60));
+		assertTrue(table.contains(21L, NOW + 60));
+		assertEquals(1, table.size());
+
+		assertEquals(1, table.expire(NOW + 660));
+		assertFalse(table.contains(21L, NOW + 660));
+	}
+
+	@Test
+	void zeroHashIsStoredAndExportedAsOne() {
+		JtiExpiryTable table = new JtiExpiryTable();
+		table.put(0L, LATER);
+		table.put(7L, NOW - 1);
+
+		assertTrue(table.contains(0L, NOW));
+		assertTrue(table.contains(1L, NOW));
+		assertArrayEquals(new long[] { 1L, LATER }, table.exportEntries(NOW));
+	}
+}
@@ -0,0 +1,68 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+import com.vietlong.spring_app.config.LoginProtectionConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginFailureTrackerTests {
+
+	private static final int THRESHOLD = 10;
+
+	@Test
+	void distinctOneOffFailuresDoNotBlockAnUntouchedAccount() {
+		LoginFailureTracker tracker = tracker();
+
+		for (int i = 0; i < 200_000; i++) {
+			tracker.recordFailure("spray-" + i + "@example.com", "198.51.100." + (i % 250));
+		}
+
+		assertFalse(tracker.isBlocked("victim@example.com", "203.0.113.7"));
+	}
+
+	@Test
+	void repeatedFailuresBlockTheAccountAtTheThreshold() {
+		LoginFailureTracker tracker = tracker();
+
+		for (int i = 0; i < THRESHOLD - 1; i++) {
+			tracker.recordFailure("Target@Example.com ", "203.0.113." + i);
+		}
+		assertFalse(tracker.isBlocked("target@example.com", "192.0.2.1"));
+
+		tracker.recordFailure("target@example.com", "203.0.113.99");
+		assertTrue(tracker.isBlocked("target@example.com", "192.0.2.1"));
+		assertFalse(tracker.isBlocked("other@example.com", "192.0.2.1"));
+	}
+
+	@Test
+	void conservativeUpdateKeepsSketchEstimatesTight() {
+		DecayingCountMinSketch sketch = new DecayingCountMinSketch(1024, 60_000L);
+
+		for (int i = 0; i < 2_000; i++) {
+			sketch.increment("key-" + i);
+		}
+		for (int i = 0; i < 50; i++) {
+			sketch.increment("hot");
+		}
+
+		assertTrue(sketch.estimate("hot") >= 50);
+		assertTrue(sketch.estimate("hot") <= 55);
+	}
+
+	private static LoginFailureTracker tracker() {
+		LoginProtectionConfig config = mock(LoginProtectionConfig.class);
+		when(config.isEnabled()).thenReturn(true);
+		when(config.getAccountThreshold()).thenReturn(THRESHOLD);
+		when(config.getIpThreshold()).thenReturn(100_000);
+		when(config.getDecayInterval()).thenReturn(300_000L);
+		when(config.getSketchWidth()).thenReturn(1024);
+		when(config.getHeavyHitterCapacity()).thenReturn(1_000);
+		return new LoginFailureTracker(config, new SimpleMeterRegistry());
+	}
+}
@@ -0,0 +1,151 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.vietlong.spring_app.config.PasswordCostCalibrator;
+import com.vietlong.spring_app.config.PasswordHashingConfig;
+import com.vietlong.spring_app.exception.AppException;
+import com.vietlong.spring_app.exception.ErrorCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceTests {
+
+	@Test
+	void calibratedCostOnlyRehashesBelowTheTolerance() {
+		PasswordHashingService service = service(0, 12, 1);
+
+		assertFalse(service.needsRehash(hashWithCost(13)));
+		assertFalse(service.needsRehash(hashWithCost(12)));
+		assertFalse(service.needsRehash(hashWithCost(11)));
+		assertTrue(service.needsRehash(hashWithCost(10)));
+		service.shutdown();
+	}
+
+	@Test
+	void calibratedCostNeverAcceptsHashesBelowTheMinimum() {
+		PasswordHashingService service = service(0, 10, 2);
+
+		assertFalse(service.needsRehash(hashWithCost(10)));
+		assertTrue(service.needsRehash(hashWithCost(9)));
+		service.shutdown();
+	}
+
+	@Test
+	void pinnedCostRehashesAnyOtherCost() {
+		PasswordHashingService service = service(12, 12, 1);
+
+		assertTrue(service.needsRehash(hashWithCost(13)));
+		assertFalse(service.needsRehash(hashWithCost(12)));
+		assertTrue(service.needsRehash(hashWithCost(11)));
+		assertFalse(service.needsRehash("{noop}plain"));
+		service.shutdown();
+	}
+
+	@Test
+	void backgroundEncodingRunsOnTheHashingExecutor() throws Exception {
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		when(encoder.encode("secret")).thenAnswer(invocation -> Thread.currentThread().getName());
+		PasswordHashingService service = service(encoder, 0, 12, 1);
+
+		String thread = service.encodeInBackground("secret").get(1, TimeUnit.SECONDS);
+
+		assertTrue(thread.startsWith("password-hashing-"));
+		service.shutdown();
+	}
+
+	@Test
+	void verificationRunsOnTheHashingExecutor() throws Exception {
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		when(encoder.matches("secret", "hash"))
+				.thenAnswer(invocation -> Thread.currentThread().getName().startsWith("password-hashing-"));
+		PasswordHashingService service = service(encoder, 0, 12, 1);
+
+		assertTrue(service.matches("secret", "hash"));
+		service.shutdown();
+	}
+
+	@Test
+	void fullQueueShedsLoadWithTooManyRequests() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		when(encoder.encode("slow")).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return "hash";
+		});
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		PasswordHashingService service = service(encoder, 1_000L, meterRegistry);
+		CompletableFuture<String> running = service.encodeInBackground("slow");
+		CompletableFuture<String> queued = service.encodeInBackground("slow");
+
+		AppException e = assertThrows(AppException.class, () -> service.matches("secret", "hash"));
+		assertEquals(ErrorCode.TOO_MANY_REQUESTS, e.getErrorCode());
+		assertEquals(1.0, meterRegistry.counter("password.hashing.rejected").count());
+		assertTrue(service.encodeInBackground("slow").isCompletedExceptionally());
+
+		release.countDown();
+		assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+		assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+		service.shutdown();
+	}
+
+	@Test
+	void slowHashTimesOutWithTooManyRequests() {
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder encoder = mock(PasswordEncoder.class);
+		when(encoder.matches("secret", "hash")).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		PasswordHashingService service = service(encoder, 50L, meterRegistry);
+
+		AppException e = assertThrows(AppException.class, () -> service.matches("secret", "hash"));
+
+		assertEquals(ErrorCode.TOO_MANY_REQUESTS, e.getErrorCode());
+		assertEquals(1.0, meterRegistry.counter("password.hashing.timed-out").count());
+		release.countDown();
+		service.shutdown();
+	}
+
+	private static PasswordHashingService service(int configuredCost, int calibratedCost, int tolerance) {
+		return service(mock(PasswordEncoder.class), configuredCost, calibratedCost, tolerance);
+	}
+
+	private static PasswordHashingService service(PasswordEncoder encoder, long timeout,
+			SimpleMeterRegistry meterRegistry) {
+		return service(encoder, timeout, 0, 12, 1, meterRegistry);
+	}
+
+	private static PasswordHashingService service(PasswordEncoder encoder, int configuredCost, int calibratedCost,
+			int tolerance) {
+		return service(encoder, 1_000L, configuredCost, calibratedCost, tolerance, new SimpleMeterRegistry());
+	}
+
+	private static PasswordHashingService service(PasswordEncoder encoder, long timeout, int configuredCost,
+			int calibratedCost, int tolerance, SimpleMeterRegistry meterRegistry) {
+		PasswordHashingConfig config = mock(PasswordHashingConfig.class);
+		when(config.getThreads()).thenReturn(1);
+		when(config.getQueueCapacity()).thenReturn(1);
+		when(config.getTimeout()).thenReturn(timeout);
+		when(config.getCost()).thenReturn(configuredCost);
+		when(config.getMinCost()).thenReturn(10);
+		when(config.getRehashTolerance()).thenReturn(tolerance);
+		PasswordCostCalibrator calibrator = mock(PasswordCostCalibrator.class);
+		when(calibrator.getCost()).thenReturn(calibratedCost);
+		return new PasswordHashingService(encoder, config, calibrator, meterRegistry);
+	}
+
+	private static String hashWithCost(int cost) {
+		return String.format("$2a$%02d$abcdefghijklmnopqrstuuabcdefghijklmnopqrstuvwxyz01234", cost);
+	}
+}
@@ -0,0 +1,45 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.vietlong.spring_app.common.TimeConstants;
+import com.vietlong.spring_app.support.Await;
+import com.vietlong.spring_app.support.TestNodes;
+
+class RevocationPropagationTests {
+
+	@Test
+	void revocationOnOneNodeReachesTheOtherNode() throws Exception {
+		try (ConfigurableApplicationContext nodeA = startNode();
+				ConfigurableApplicationContext nodeB = startNode()) {
+			TokenBlacklistService blacklistA = nodeA.getBean(TokenBlacklistService.class);
+			BlacklistReplica replicaB = nodeB.getBean(BlacklistReplica.class);
+			RevocationEventBus busB = nodeB.getBean(RevocationEventBus.class);
+
+			Await.assertEventually(replicaB::isFresh, "Replica của node B chưa sẵn sàng");
+
+			String jti = UUID.randomUUID().toString();
+			Date expirationTime = new Date(System.currentTimeMillis() + TimeConstants.MILLISECONDS_PER_HOUR);
+			assertFalse(replicaB.contains(jti));
+
+			blacklistA.blacklistToken(jti, "propagation-user", expirationTime, "LOGOUT");
+
+			assertTrue(blacklistA.isTokenBlacklisted(jti, expirationTime));
+			Await.assertEventually(() -> replicaB.contains(jti), "Revocation chưa được lan truyền sang node B");
+			assertTrue(busB.getStats().getReceivedEvents() >= 1);
+		}
+	}
+
+	private static ConfigurableApplicationContext startNode() {
+		return TestNodes.start("revocation_propagation",
+				"spring.jwt.revocation.poll-interval=100",
+				"spring.jwt.blacklist.replica.max-lag=5000");
+	}
+}
@@ -0,0 +1,119 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.model.RevocationType;
+import com.vietlong.spring_app.model.RevocationWatermark;
+import com.vietlong.spring_app.repository.RevocationWatermarkRepository;
+
+class RevocationWatermarkServiceTests {
+
+	private static final long WATERMARK = 1_700_000_000L;
+
+	@Test
+	void nothingIsRevokedBeforeAWatermarkExists() {
+		RevocationWatermarkService service = service(mock(RevocationWatermarkRepository.class),
+				mock(RevocationEventBus.class));
+
+		assertFalse(service.isRevoked(Instant.ofEpochSecond(1L)));
+		assertFalse(service.isRevoked(null));
+		assertNull(service.getIssuedBefore());
+	}
+
+	@Test
+	void tokensIssuedBeforeTheWatermarkAreRevoked() {
+		RevocationWatermarkService service = service(mock(RevocationWatermarkRepository.class),
+				mock(RevocationEventBus.class));
+
+		service.onRevocation(new RevocationEvent(WATERMARK, LocalDateTime.now().plusHours(1)));
+
+		assertTrue(service.isRevoked(Instant.ofEpochSecond(WATERMARK - 1)));
+		assertFalse(service.isRevoked(Instant.ofEpochSecond(WATERMARK)));
+		assertTrue(service.isRevoked(null));
+		assertEquals(toLocalDateTime(WATERMARK), service.getIssuedBefore());
+	}
+
+	@Test
+	void watermarkNeverMovesBackwards() {
+		RevocationWatermarkService service = service(mock(RevocationWatermarkRepository.class),
+				mock(RevocationEventBus.class));
+
+		service.onRevocation(new RevocationEvent(WATERMARK, LocalDateTime.now().plusHours(1)));
+		service.onRevocation(new RevocationEvent(WATERMARK - 60, LocalDateTime.now().plusHours(1)));
+
+		assertTrue(service.isRevoked(Instant.ofEpochSecond(WATERMARK - 1)));
+	}
+
+	@Test
+	void revocationIsRoundedUpToTheNextSecondAndPublished() throws Exception {
+		RevocationWatermarkRepository repository = mock(RevocationWatermarkRepository.class);
+		when(repository.findById("global")).thenReturn(Optional.empty());
+		RevocationEventBus revocationEventBus = mock(RevocationEventBus.class);
+		RevocationWatermarkService service = service(repository, revocationEventBus);
+		LocalDateTime issuedBefore = toLocalDateTime(WATERMARK).minusNanos(1);
+
+		assertEquals(toLocalDateTime(WATERMARK), service.revokeIssuedBefore(issuedBefore, "TEST"));
+
+		ArgumentCaptor<RevocationEvent> event = ArgumentCaptor.forClass(RevocationEvent.class);
+		verify(revocationEventBus).publish(event.capture());
+		assertEquals(RevocationType.GLOBAL, event.getValue().getType());
+		assertEquals(WATERMARK, event.getValue().getGeneration());
+		verify(repository).save(any(RevocationWatermark.class));
+	}
+
+	@Test
+	void olderRevocationKeepsTheStoredWatermark() throws Exception {
+		RevocationWatermarkRepository repository = mock(RevocationWatermarkRepository.class);
+		RevocationWatermark stored = new RevocationWatermark("global", toLocalDateTime(WATERMARK), "EARLIER");
+		when(repository.findById("global")).thenReturn(Optional.of(stored));
+		RevocationEventBus revocationEventBus = mock(RevocationEventBus.class);
+		RevocationWatermarkService service = service(repository, revocationEventBus);
+
+		assertEquals(stored.getIssuedBefore(), service.revokeIssuedBefore(toLocalDateTime(WATERMARK - 60), "TEST"));
+
+		verify(repository, never()).save(any(RevocationWatermark.class));
+		verify(revocationEventBus, never()).publish(any(RevocationEvent.class));
+	}
+
+	@Test
+	void refreshAdoptsTheStoredWatermark() {
+		RevocationWatermarkRepository repository = mock(RevocationWatermarkRepository.class);
+		when(repository.findById("global"))
+				.thenReturn(Optional.of(new RevocationWatermark("global", toLocalDateTime(WATERMARK), "TEST")));
+		RevocationWatermarkService service = service(repository, mock(RevocationEventBus.class));
+
+		service.refresh();
+
+		assertTrue(service.isRevoked(Instant.ofEpochSecond(WATERMARK - 1)));
+		assertFalse(service.isRevoked(Instant.ofEpochSecond(WATERMARK)));
+	}
+
+	private static RevocationWatermarkService service(RevocationWatermarkRepository repository,
+			RevocationEventBus revocationEventBus) {
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.getExpirationHours()).thenReturn(1);
+		return new RevocationWatermarkService(repository, revocationEventBus, jwtConfig);
+	}
+
+	private static LocalDateTime toLocalDateTime(long epochSecond) {
+		return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+	}
+}
@@ -0,0 +1,148 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.exception.AppException;
+import com.vietlong.spring_app.repository.ActiveTokenRepository;
+import com.vietlong.spring_app.repository.BlacklistedTokenRepository;
+import com.vietlong.spring_app.repository.UserRepository;
+import com.vietlong.spring_app.service.TokenBlacklistService.BulkRevocationResult;
+import com.vietlong.spring_app.support.Await;
+
+class TokenBlacklistServiceTests {
+
+	@Test
+	void bulkForceLogoutCommitsEveryChunk() throws Exception {
+		TokenGenerationService tokenGenerationService = mock(TokenGenerationService.class);
+		when(tokenGenerationService.revokeAllTokens(anyCollection()))
+				.thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).size());
+		TokenBlacklistService service = service(tokenGenerationService);
+
+		BulkRevocationResult result = service.blacklistAllUsersTokens(userIds(2_500), "TEST");
+
+		assertTrue(result.isCompleted());
+		assertEquals(2_500, result.getProcessedUsers());
+		assertEquals(2_500, result.getRevokedUsers());
+		assertEquals(3 * 2, result.getRevokedSessions());
+	}
+
+	@Test
+	void failedChunkReportsPartialProgress() throws Exception {
+		TokenGenerationService tokenGenerationService = mock(TokenGenerationService.class);
+		when(tokenGenerationService.revokeAllTokens(anyCollection()))
+				.thenReturn(1_000)
+				.thenThrow(new DataAccessResourceFailureException("database down"));
+		TokenBlacklistService service = service(tokenGenerationService);
+		List<String> userIds = userIds(2_500);
+
+		BulkRevocationResult result = service.blacklistAllUsersTokens(userIds, "TEST");
+
+		assertFalse(result.isCompleted());
+		assertEquals(2_500, result.getRequestedUsers());
+		assertEquals(1_000, result.getProcessedUsers());
+		assertEquals(1_000, result.getRevokedUsers());
+		assertEquals(userIds.subList(1_000, 2_500), result.getRemainingUserIds());
+	}
+
+	@Test
+	void failedFirstChunkFailsTheRequest() throws Exception {
+		TokenGenerationService tokenGenerationService = mock(TokenGenerationService.class);
+		when(tokenGenerationService.revokeAllTokens(anyCollection()))
+				.thenThrow(new DataAccessResourceFailureException("database down"));
+		TokenBlacklistService service = service(tokenGenerationService);
+
+		assertThrows(AppException.class, () -> service.blacklistAllUsersTokens(userIds(10), "TEST"));
+	}
+
+	@Test
+	void concurrentLookupsForTheSameJtiShareOneDatabaseQuery() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger queries = new AtomicInteger();
+		TokenStore tokenStore = mock(TokenStore.class);
+		when(tokenStore.isBlacklisted(eq("shared-jti"), any(LocalDateTime.class))).thenAnswer(invocation -> {
+			queries.incrementAndGet();
+			release.await(5, TimeUnit.SECONDS);
+			return true;
+		});
+		TokenBlacklistService service = service(mock(TokenGenerationService.class), tokenStore);
+		Date expirationTime = new Date(System.currentTimeMillis() + 60_000);
+		int callers = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		List<Future<Boolean>> results = new ArrayList<>();
+
+		for (int i = 0; i < callers; i++) {
+			results.add(executor.submit(() -> service.isTokenBlacklisted("shared-jti", expirationTime)));
+		}
+		Await.assertEventually(() -> service.getLookupStats().getCoalescedLookups() == callers - 1);
+		release.countDown();
+
+		for (Future<Boolean> result : results) {
+			assertTrue(result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, queries.get());
+		assertEquals(1, service.getLookupStats().getDatabaseLookups());
+
+		assertTrue(service.isTokenBlacklisted("shared-jti", expirationTime));
+		assertEquals(2, queries.get());
+		assertEquals(0, service.getLookupStats().getInFlightLookups());
+		executor.shutdownNow();
+	}
+
+	private static TokenBlacklistService service(TokenGenerationService tokenGenerationService) throws Exception {
+		TokenStore tokenStore = mock(TokenStore.class);
+		when(tokenStore.blacklistActiveTokens(anyList(), any(LocalDateTime.class), anyString())).thenReturn(2);
+		return service(tokenGenerationService, tokenStore);
+	}
+
+	private static TokenBlacklistService service(TokenGenerationService tokenGenerationService, TokenStore tokenStore)
+			throws Exception {
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+		BlacklistCircuitBreaker blacklistCircuitBreaker = mock(BlacklistCircuitBreaker.class);
+		when(blacklistCircuitBreaker.allowRequest()).thenReturn(true);
+		when(blacklistCircuitBreaker.execute(any()))
+				.thenAnswer(invocation -> invocation.<Callable<Object>>getArgument(0).call());
+		return new TokenBlacklistService(mock(BlacklistedTokenRepository.class), mock(ActiveTokenRepository.class),
+				mock(JwtConfig.class), mock(UserRepository.class), mock(RevocationEventBus.class),
+				mock(BlacklistReplica.class), tokenGenerationService, blacklistCircuitBreaker,
+				mock(TokenWriteBehind.class), mock(TokenPurgeEngine.class), tokenStore, transactionTemplate);
+	}
+
+	private static List<String> userIds(int count) {
+		List<String> userIds = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			userIds.add("bulk-user-" + i);
+		}
+		return userIds;
+	}
+}
@@ -0,0 +1,96 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenGenerationServiceTests {
+
+	private static final String USER_ID = "generation-user";
+
+	@Test
+	void outageFallsBackToTheLastKnownGenerationWhileTheReplicaIsFresh() throws Exception {
+		UserRepository userRepository = mock(UserRepository.class);
+		BlacklistReplica blacklistReplica = replica(true, 0L);
+		TokenGenerationService service = service(userRepository, blacklistReplica, false);
+
+		when(userRepository.findTokenGenerationById(USER_ID)).thenReturn(Optional.of(3L));
+		assertTrue(service.isCurrent(USER_ID, 3L));
+
+		Thread.sleep(20);
+		when(userRepository.findTokenGenerationById(USER_ID))
+				.thenThrow(new DataAccessResourceFailureException("database down"));
+
+		assertTrue(service.isCurrent(USER_ID, 3L));
+		assertFalse(service.isCurrent(USER_ID, 2L));
+	}
+
+	@Test
+	void outageWithoutAKnownGenerationFailsClosed() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findTokenGenerationById(USER_ID))
+				.thenThrow(new DataAccessResourceFailureException("database down"));
+		TokenGenerationService service = service(userRepository, replica(true, 0L), false);
+
+		assertThrows(IllegalStateException.class, () -> service.isCurrent(USER_ID, 0L));
+	}
+
+	@Test
+	void staleReplicaDropsTheLastKnownGenerationUnlessFailOpen() throws Exception {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findTokenGenerationById(USER_ID)).thenReturn(Optional.of(1L));
+		TokenGenerationService service = service(userRepository, replica(true, 60_000L), false);
+		assertTrue(service.isCurrent(USER_ID, 1L));
+
+		Thread.sleep(20);
+		when(userRepository.findTokenGenerationById(USER_ID))
+				.thenThrow(new DataAccessResourceFailureException("database down"));
+
+		assertThrows(IllegalStateException.class, () -> service.isCurrent(USER_ID, 1L));
+	}
+
+	@Test
+	void failOpenAcceptsTokensWhenNothingIsKnown() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findTokenGenerationById(USER_ID))
+				.thenThrow(new DataAccessResourceFailureException("database down"));
+		TokenGenerationService service = service(userRepository, replica(false, Long.MAX_VALUE), true);
+
+		assertTrue(service.isCurrent(USER_ID, 0L));
+	}
+
+	private static BlacklistReplica replica(boolean ready, long stalenessMillis) {
+		BlacklistReplica blacklistReplica = mock(BlacklistReplica.class);
+		when(blacklistReplica.isReady()).thenReturn(ready);
+		when(blacklistReplica.getStalenessMillis()).thenReturn(stalenessMillis);
+		return blacklistReplica;
+	}
+
+	private static TokenGenerationService service(UserRepository userRepository, BlacklistReplica blacklistReplica,
+			boolean failOpen) {
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.getUserGenerationCacheMaxSize()).thenReturn(1_000L);
+		when(jwtConfig.getUserGenerationCacheTtl()).thenReturn(10L);
+		when(jwtConfig.getBlacklistBreakerTimeout()).thenReturn(1_000L);
+		when(jwtConfig.getBlacklistBreakerFailureThreshold()).thenReturn(100);
+		when(jwtConfig.getBlacklistBreakerOpenDuration()).thenReturn(30_000L);
+		when(jwtConfig.getBlacklistBreakerMaxConcurrentCalls()).thenReturn(4);
+		when(jwtConfig.getBlacklistDegradedMaxStaleness()).thenReturn(5_000L);
+		when(jwtConfig.isBlacklistDegradedFailOpen()).thenReturn(failOpen);
+		BlacklistCircuitBreaker breaker = new BlacklistCircuitBreaker(jwtConfig, new SimpleMeterRegistry());
+		return new TokenGenerationService(userRepository, mock(RevocationEventBus.class), jwtConfig, breaker,
+				blacklistReplica);
+	}
+}
@@ -0,0 +1,99 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.vietlong.spring_app.common.JwtConstants;
+import com.vietlong.spring_app.common.TimeConstants;
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.config.JwtKeySet;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.model.User;
+import com.vietlong.spring_app.service.TokenIssuer.IssuedToken;
+
+@Tag("benchmark")
+class TokenIssuerBenchmark {
+
+	private static final String SIGNER_KEY = "9BZQWCbJ1dex4l/xmilDKuXfuLYecSCCF9B44x1s/m+BOlXGjQ7cjdXSU9rEoMyR";
+	private static final int WARMUP_ITERATIONS = 20_000;
+	private static final int MEASURED_ITERATIONS = 200_000;
+
+	@Test
+	void issuanceThroughput() throws Exception {
+		JwtConfig jwtConfig = new JwtConfig();
+		ReflectionTestUtils.setField(jwtConfig, "signerKey", SIGNER_KEY);
+		ReflectionTestUtils.setField(jwtConfig, "expirationHours", 24);
+		TokenIssuer tokenIssuer = new TokenIssuer(jwtConfig, new JwtKeySet(jwtConfig, null, null));
+
+		User user = new User("Benchmark", "benchmark@vietlong.com", "password", Role.USER);
+		user.setId(UUID.randomUUID().toString());
+		user.setTokenGeneration(0L);
+
+		IssuedToken sample = tokenIssuer.issue(user);
+		SignedJWT parsed = SignedJWT.parse(sample.getToken());
+		assertTrue(parsed.verify(new MACVerifier(SIGNER_KEY.getBytes(StandardCharsets.UTF_8))));
+		assertEquals(sample.getJti(), parsed.getJWTClaimsSet().getJWTID());
+		assertEquals(sample.getExpiresAt(), parsed.getJWTClaimsSet().getExpirationTime());
+
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			legacyIssue(user);
+			tokenIssuer.issue(user);
+		}
+
+		long legacyStart = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			legacyIssue(user);
+		}
+		long legacyNanos = System.nanoTime() - legacyStart;
+
+		long leanStart = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			tokenIssuer.issue(user);
+		}
+		long leanNanos = System.nanoTime() - leanStart;
+
+		System.out.printf("Token issuance - legacy: %.0f ops/s, lean: %.0f ops/s (%.2fx)%n",
+				MEASURED_ITERATIONS * 1e9 / legacyNanos, MEASURED_ITERATIONS * 1e9 / leanNanos,
+				(double) legacyNanos / leanNanos);
+	}
+
+	private static String legacyIssue(User user) throws Exception {
+		JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
+				.subject(user.getEmail())
+				.issuer(JwtConstants.ISSUER)
+				.audience(JwtConstants.AUDIENCE)
+				.issueTime(new Date())
+				.expirationTime(new Date(System.currentTimeMillis() + TimeConstants.MILLISECONDS_PER_HOUR * 24))
+				.jwtID(UUID.randomUUID().toString())
+				.claim(JwtConstants.USER_ID_CLAIM, user.getId())
+				.claim(JwtConstants.EMAIL_CLAIM, user.getEmail())
+				.claim(JwtConstants.SCOPE_CLAIM, user.getRole().name())
+				.claim(JwtConstants.TOKEN_GENERATION_CLAIM, user.getTokenGeneration())
+				.build();
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS512), new Payload(jwtClaimsSet.toJSONObject()));
+		jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes(StandardCharsets.UTF_8)));
+		String token = jwsObject.serialize();
+
+		SignedJWT signedJWT = SignedJWT.parse(token);
+		signedJWT.verify(new MACVerifier(SIGNER_KEY.getBytes(StandardCharsets.UTF_8)));
+		signedJWT.getJWTClaimsSet().getJWTID();
+		return token;
+	}
+}
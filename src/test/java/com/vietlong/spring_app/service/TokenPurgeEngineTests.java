@@ -0,0 +1,212 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.PurgeCheckpoint;
+import com.vietlong.spring_app.repository.PurgeCheckpointRepository;
+import com.vietlong.spring_app.service.TokenPurgeEngine.Target;
+
+class TokenPurgeEngineTests {
+
+	private static final int FAST_CHUNKS = 4;
+	private static final long TARGET_LATENCY = 20L;
+
+	@Test
+	void chunkSizeGrowsWhileFastAndShrinksOnceSlow() throws Exception {
+		FakeTable table = new FakeTable(1_000_000, FAST_CHUNKS, TARGET_LATENCY + 10);
+		PurgeCheckpointRepository repository = repository(null);
+		TokenPurgeEngine engine = new TokenPurgeEngine(table.jdbcTemplate(), repository, jwtConfig(1_000L));
+
+		engine.purge(Target.REVOCATION_EVENTS, LocalDateTime.now());
+
+		List<Integer> limits = table.limits;
+		assertEquals(List.of(100, 150, 225, 337, 505, 252, 126, 63, 31, 15), limits.subList(0, 10));
+		assertEquals(10, limits.get(limits.size() - 1));
+	}
+
+	@Test
+	void interruptedRunResumesFromTheCheckpoint() throws Exception {
+		LocalDateTime startedAt = LocalDateTime.now().minusHours(1);
+		PurgeCheckpoint interrupted = checkpoint(LocalDateTime.now().minusMinutes(30), startedAt);
+		interrupted.setDeletedCount(40);
+		interrupted.setChunkCount(2);
+		FakeTable table = new FakeTable(30, Integer.MAX_VALUE, 0L);
+		PurgeCheckpointRepository repository = repository(interrupted);
+		TokenPurgeEngine engine = new TokenPurgeEngine(table.jdbcTemplate(), repository, jwtConfig(10_000L));
+		LocalDateTime cutoff = LocalDateTime.now();
+
+		assertEquals(30, engine.purge(Target.REVOCATION_EVENTS, cutoff));
+
+		assertEquals(70, interrupted.getDeletedCount());
+		assertEquals(3, interrupted.getChunkCount());
+		assertEquals(startedAt, interrupted.getStartedAt());
+		assertEquals(cutoff, interrupted.getCutoff());
+		assertTrue(interrupted.isCompleted());
+		assertNull(interrupted.getLeaseOwner());
+	}
+
+	@Test
+	void leaseHeldByAnotherNodeSkipsTheRun() throws Exception {
+		PurgeCheckpoint leased = checkpoint(LocalDateTime.now(), LocalDateTime.now());
+		leased.setLeaseOwner("other-node");
+		leased.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(1));
+		NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+		TokenPurgeEngine engine = new TokenPurgeEngine(jdbcTemplate, repository(leased), jwtConfig(10_000L));
+
+		assertEquals(0, engine.purge(Target.REVOCATION_EVENTS, LocalDateTime.now()));
+		verifyNoInteractions(jdbcTemplate);
+	}
+
+	@Test
+	void expiredLeaseIsTakenOver() throws Exception {
+		PurgeCheckpoint abandoned = checkpoint(LocalDateTime.now(), LocalDateTime.now());
+		abandoned.setLeaseOwner("crashed-node");
+		abandoned.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+		FakeTable table = new FakeTable(10, Integer.MAX_VALUE, 0L);
+		TokenPurgeEngine engine = new TokenPurgeEngine(table.jdbcTemplate(), repository(abandoned),
+				jwtConfig(10_000L));
+
+		assertEquals(10, engine.purge(Target.REVOCATION_EVENTS, LocalDateTime.now()));
+		assertTrue(abandoned.isCompleted());
+	}
+
+	@Test
+	void lostLeaseStopsTheRun() throws Exception {
+		FakeTable table = new FakeTable(1_000_000, Integer.MAX_VALUE, 0L);
+		PurgeCheckpointRepository repository = mock(PurgeCheckpointRepository.class);
+		when(repository.findById(anyString())).thenReturn(Optional.empty());
+		AtomicInteger saves = new AtomicInteger();
+		when(repository.save(any(PurgeCheckpoint.class))).thenAnswer(invocation -> {
+			if (saves.incrementAndGet() > 2) {
+				throw new ObjectOptimisticLockingFailureException(PurgeCheckpoint.class, "REVOCATION_EVENTS");
+			}
+			return invocation.getArgument(0);
+		});
+		TokenPurgeEngine engine = new TokenPurgeEngine(table.jdbcTemplate(), repository, jwtConfig(10_000L));
+
+		engine.purge(Target.REVOCATION_EVENTS, LocalDateTime.now());
+
+		assertEquals(2, table.limits.size());
+		assertTrue(table.remaining.get() > 0);
+	}
+
+	@Test
+	void scheduledRunsExecuteOnTheDedicatedPurgeThread() throws Exception {
+		TokenPurgeEngine engine = new TokenPurgeEngine(mock(NamedParameterJdbcTemplate.class), repository(null),
+				jwtConfig(10_000L));
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> thread = new CompletableFuture<>();
+
+		engine.runInBackground(() -> {
+			thread.complete(Thread.currentThread().getName());
+			awaitQuietly(release);
+		});
+
+		assertEquals("token-purge", thread.get(5, TimeUnit.SECONDS));
+		release.countDown();
+		engine.stop();
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static PurgeCheckpoint checkpoint(LocalDateTime cutoff, LocalDateTime startedAt) {
+		PurgeCheckpoint checkpoint = new PurgeCheckpoint(Target.REVOCATION_EVENTS.name(), cutoff);
+		checkpoint.setStartedAt(startedAt);
+		checkpoint.setVersion(3L);
+		return checkpoint;
+	}
+
+	private static PurgeCheckpointRepository repository(PurgeCheckpoint existing) {
+		PurgeCheckpointRepository repository = mock(PurgeCheckpointRepository.class);
+		when(repository.findById(anyString())).thenReturn(Optional.ofNullable(existing));
+		when(repository.save(any(PurgeCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		return repository;
+	}
+
+	private static JwtConfig jwtConfig(long maxDuration) {
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.getPurgeInitialChunkSize()).thenReturn(100);
+		when(jwtConfig.getPurgeMinChunkSize()).thenReturn(10);
+		when(jwtConfig.getPurgeMaxChunkSize()).thenReturn(1_000);
+		when(jwtConfig.getPurgeTargetLatency()).thenReturn(TARGET_LATENCY);
+		when(jwtConfig.getPurgePauseFactor()).thenReturn(0d);
+		when(jwtConfig.getPurgeMaxDuration()).thenReturn(maxDuration);
+		when(jwtConfig.getPurgeLeaseDuration()).thenReturn(60_000L);
+		return jwtConfig;
+	}
+
+	private static final class FakeTable {
+		private final AtomicLong remaining;
+		private final int fastChunks;
+		private final long slowDelayMillis;
+		private final List<Integer> limits = new ArrayList<>();
+
+		private FakeTable(long rows, int fastChunks, long slowDelayMillis) {
+			this.remaining = new AtomicLong(rows);
+			this.fastChunks = fastChunks;
+			this.slowDelayMillis = slowDelayMillis;
+		}
+
+		private NamedParameterJdbcTemplate jdbcTemplate() throws Exception {
+			ResultSet resultSet = mock(ResultSet.class);
+			AtomicLong nextId = new AtomicLong();
+			when(resultSet.getObject(1)).thenAnswer(invocation -> nextId.incrementAndGet());
+			when(resultSet.getTimestamp(2)).thenReturn(Timestamp.valueOf(LocalDateTime.now().minusDays(1)));
+
+			NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+			doAnswer(invocation -> {
+				int limit = (Integer) invocation.<SqlParameterSource>getArgument(1).getValue("limit");
+				limits.add(limit);
+				RowCallbackHandler handler = invocation.getArgument(2);
+				long rows = Math.min(limit, remaining.get());
+				for (long i = 0; i < rows; i++) {
+					handler.processRow(resultSet);
+				}
+				return null;
+			}).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+			when(jdbcTemplate.update(anyString(), any(SqlParameterSource.class))).thenAnswer(invocation -> {
+				if (limits.size() > fastChunks) {
+					Thread.sleep(slowDelayMillis);
+				}
+				int deleted = ((Collection<?>) invocation.<SqlParameterSource>getArgument(1).getValue("ids")).size();
+				remaining.addAndGet(-deleted);
+				return deleted;
+			});
+			return jdbcTemplate;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.support.Await;
+
+class TokenWriteBehindRetryTests {
+
+	private static final int MAX_ATTEMPTS = 4;
+
+	@Test
+	void batchIsRetriedWhileTheTransactionManagerIsDown() throws Exception {
+		TokenWriteBehind tokenWriteBehind = writeBehind(2);
+
+		tokenWriteBehind.submitBlacklistedToken(UUID.randomUUID().toString(), "retry-user",
+				LocalDateTime.now().plusHours(1), "LOGOUT");
+
+		Await.assertEventually(() -> tokenWriteBehind.getStats().getFlushedWrites() == 1);
+		assertEquals(2, tokenWriteBehind.getStats().getRetriedWrites());
+		assertEquals(0, tokenWriteBehind.getStats().getDroppedWrites());
+		tokenWriteBehind.shutdown();
+	}
+
+	@Test
+	void writesAreCountedAsDroppedOnceRetriesAreExhausted() throws Exception {
+		TokenWriteBehind tokenWriteBehind = writeBehind(Integer.MAX_VALUE);
+
+		tokenWriteBehind.submitActiveToken(UUID.randomUUID().toString(), "retry-user",
+				LocalDateTime.now().plusHours(1), "test");
+		tokenWriteBehind.submitBlacklistedToken(UUID.randomUUID().toString(), "retry-user",
+				LocalDateTime.now().plusHours(1), "LOGOUT");
+
+		Await.assertEventually(() -> tokenWriteBehind.getStats().getDroppedWrites() == 2);
+		assertEquals(2 * (MAX_ATTEMPTS - 1), tokenWriteBehind.getStats().getRetriedWrites());
+		assertEquals(0, tokenWriteBehind.getStats().getFlushedWrites());
+		tokenWriteBehind.shutdown();
+	}
+
+	private static TokenWriteBehind writeBehind(int failures) {
+		AtomicInteger remainingFailures = new AtomicInteger(failures);
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		doAnswer(invocation -> {
+			if (remainingFailures.getAndDecrement() > 0) {
+				throw new CannotCreateTransactionException("database down");
+			}
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+
+		TokenStore tokenStore = mock(TokenStore.class);
+		when(tokenStore.activeTokensTable(any(LocalDateTime.class))).thenReturn("active_tokens");
+		when(tokenStore.blacklistedTokensTable(any(LocalDateTime.class))).thenReturn("blacklisted_tokens");
+
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.isWriteBehindEnabled()).thenReturn(true);
+		when(jwtConfig.getWriteBehindQueueCapacity()).thenReturn(100);
+		when(jwtConfig.getWriteBehindBatchSize()).thenReturn(10);
+		when(jwtConfig.getWriteBehindFlushInterval()).thenReturn(5L);
+		when(jwtConfig.getWriteBehindShutdownTimeout()).thenReturn(1_000L);
+		when(jwtConfig.getWriteBehindMaxAttempts()).thenReturn(MAX_ATTEMPTS);
+		when(jwtConfig.getWriteBehindMaxRetryBackoff()).thenReturn(20L);
+
+		TokenWriteBehind tokenWriteBehind = new TokenWriteBehind(mock(JdbcTemplate.class), transactionTemplate,
+				mock(BlacklistReplica.class), tokenStore, jwtConfig);
+		tokenWriteBehind.start();
+		return tokenWriteBehind;
+	}
+}
@@ -0,0 +1,115 @@
+package com.vietlong.spring_app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.repository.ActiveTokenRepository;
+import com.vietlong.spring_app.repository.RevocationEventRepository;
+import com.vietlong.spring_app.support.Await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:token_write_behind;DB_CLOSE_DELAY=-1;MODE=MySQL",
+		"spring.jwt.write-behind.enabled=true",
+		"spring.jwt.write-behind.flush-interval=200"
+})
+class TokenWriteBehindTests {
+
+	@Autowired
+	private TokenWriteBehind tokenWriteBehind;
+
+	@Autowired
+	private TokenStore tokenStore;
+
+	@Autowired
+	private ActiveTokenRepository activeTokenRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private BlacklistReplica blacklistReplica;
+
+	@Autowired
+	private RevocationEventRepository revocationEventRepository;
+
+	@Test
+	void queuedWritesAreFlushedInBatches() throws Exception {
+		String userId = "write-behind-" + UUID.randomUUID();
+		String activeJti = UUID.randomUUID().toString();
+		String revokedJti = UUID.randomUUID().toString();
+		LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+		long batchesBefore = tokenWriteBehind.getStats().getFlushedBatches();
+
+		assertTrue(tokenWriteBehind.submitActiveToken(activeJti, userId, expiresAt, "test"));
+		assertTrue(tokenWriteBehind.submitActiveToken(revokedJti, userId, expiresAt, "test"));
+		assertTrue(tokenWriteBehind.submitBlacklistedToken(revokedJti, userId, expiresAt, "LOGOUT"));
+
+		Await.assertEventually(() -> tokenStore.isBlacklisted(revokedJti, expiresAt));
+		Await.assertEventually(() -> activeTokenRepository.findByUserId(userId).size() == 1);
+		assertEquals(activeJti, activeTokenRepository.findByUserId(userId).get(0).getJti());
+		assertTrue(tokenWriteBehind.getStats().getFlushedBatches() > batchesBefore);
+	}
+
+	@Test
+	void failedBatchFallsBackToRowByRowWrites() throws Exception {
+		String userId = "write-behind-" + UUID.randomUUID();
+		String duplicateJti = UUID.randomUUID().toString();
+		String freshJti = UUID.randomUUID().toString();
+		LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+		jdbcTemplate.update("INSERT INTO blacklisted_tokens (id, jti, user_id, expires_at, blacklisted_at, reason) "
+				+ "VALUES (?, ?, ?, ?, ?, ?)", UUID.randomUUID().toString(), duplicateJti, userId,
+				Timestamp.valueOf(expiresAt), Timestamp.valueOf(LocalDateTime.now()), "LOGOUT");
+		long fallbackBefore = tokenWriteBehind.getStats().getFallbackWrites();
+
+		assertTrue(tokenWriteBehind.submitBlacklistedToken(duplicateJti, userId, expiresAt, "LOGOUT"));
+		assertTrue(tokenWriteBehind.submitBlacklistedToken(freshJti, userId, expiresAt, "LOGOUT"));
+
+		Await.assertEventually(() -> tokenStore.isBlacklisted(freshJti, expiresAt));
+		Await.assertEventually(() -> tokenWriteBehind.getStats().getFallbackWrites() > fallbackBefore);
+		assertEquals(0, tokenWriteBehind.getStats().getDroppedWrites());
+	}
+
+	@Test
+	void unpersistedRevocationsAreRecoveredFromEvents() {
+		String jti = UUID.randomUUID().toString();
+		LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+		revocationEventRepository.save(new RevocationEvent(jti, "write-behind-" + UUID.randomUUID(), expiresAt));
+		assertFalse(tokenStore.isBlacklisted(jti, expiresAt));
+
+		tokenWriteBehind.recoverUnpersistedRevocations();
+
+		assertTrue(tokenStore.isBlacklisted(jti, expiresAt));
+		assertTrue(blacklistReplica.contains(jti));
+	}
+
+	@Test
+	void writeBehindIsRejectedWithTheLocalBus() {
+		new ApplicationContextRunner()
+				.withInitializer(new ConfigDataApplicationContextInitializer())
+				.withUserConfiguration(JwtConfig.class)
+				.withPropertyValues("spring.profiles.active=test", "spring.jwt.write-behind.enabled=true",
+						"spring.jwt.revocation.bus=local")
+				.run(context -> assertThat(context).getFailure()
+						.rootCause()
+						.hasMessageStartingWith("Write-behind requires the database revocation bus"));
+	}
+}
@@ -0,0 +1,70 @@
+package com.vietlong.spring_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.vietlong.spring_app.config.JwtConfig;
+import com.vietlong.spring_app.model.RevocationEvent;
+import com.vietlong.spring_app.model.Role;
+import com.vietlong.spring_app.repository.UserRepository;
+import com.vietlong.spring_app.repository.UserRepository.CredentialView;
+
+class UserCredentialCacheTests {
+
+	@Test
+	void userRevocationInvalidatesOnlyThatUsersEntry() {
+		UserRepository userRepository = mock(UserRepository.class);
+		stubCredentials(userRepository, "user-a", "a@example.com");
+		stubCredentials(userRepository, "user-b", "b@example.com");
+		UserCredentialCache cache = cache(userRepository);
+
+		assertEquals("user-a", cache.get("a@example.com").getId());
+		assertEquals("user-b", cache.get("b@example.com").getId());
+
+		cache.onRevocation(new RevocationEvent("user-a", 1L, LocalDateTime.now().plusHours(1)));
+		cache.get("a@example.com");
+		cache.get("b@example.com");
+
+		verify(userRepository, times(2)).findCredentialsByEmail("a@example.com");
+		verify(userRepository, times(1)).findCredentialsByEmail("b@example.com");
+	}
+
+	@Test
+	void revocationAfterInvalidationDoesNotTouchTheCache() {
+		UserRepository userRepository = mock(UserRepository.class);
+		stubCredentials(userRepository, "user-a", "a@example.com");
+		UserCredentialCache cache = cache(userRepository);
+
+		cache.get("a@example.com");
+		cache.invalidate("a@example.com");
+		cache.get("a@example.com");
+		cache.onRevocation(new RevocationEvent("user-a", 1L, LocalDateTime.now().plusHours(1)));
+		cache.get("a@example.com");
+
+		verify(userRepository, times(3)).findCredentialsByEmail("a@example.com");
+	}
+
+	private static UserCredentialCache cache(UserRepository userRepository) {
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.getCredentialCacheMaxSize()).thenReturn(100L);
+		when(jwtConfig.getCredentialCacheTtl()).thenReturn(60_000L);
+		return new UserCredentialCache(userRepository, jwtConfig, mock(RevocationEventBus.class));
+	}
+
+	private static void stubCredentials(UserRepository userRepository, String id, String email) {
+		CredentialView view = mock(CredentialView.class);
+		when(view.getId()).thenReturn(id);
+		when(view.getEmail()).thenReturn(email);
+		when(view.getPassword()).thenReturn("{noop}password");
+		when(view.getRole()).thenReturn(Role.USER);
+		when(userRepository.findCredentialsByEmail(email)).thenReturn(Optional.of(view));
+	}
+}
@@ -0,0 +1,98 @@
+package com.vietlong.spring_app.service.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vietlong.spring_app.dto.request.CreateUserRequest;
+import com.vietlong.spring_app.dto.request.UpdateUserRequest;
+import com.vietlong.spring_app.service.PasswordHashingService;
+import com.vietlong.spring_app.service.TokenGenerationService;
+import com.vietlong.spring_app.service.UserCredentialCache;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:admin_user_service;DB_CLOSE_DELAY=-1;MODE=MySQL")
+class AdminUserServiceTests {
+
+	@Autowired
+	private AdminUserService adminUserService;
+
+	@Autowired
+	private TokenGenerationService tokenGenerationService;
+
+	@Autowired
+	private UserCredentialCache userCredentialCache;
+
+	@Autowired
+	private PasswordHashingService passwordHashingService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void passwordChangeRevokesOnlyAfterCommit() throws Exception {
+		String email = "admin-update-" + UUID.randomUUID() + "@example.com";
+		String userId = adminUserService.createUser(createRequest(email, "old-password")).getId();
+		long before = tokenGenerationService.currentGeneration(userId);
+		userCredentialCache.get(email);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			update(userId, "new-password");
+			assertEquals(before, tokenGenerationService.currentGeneration(userId));
+			assertTrue(matches("old-password", userCredentialCache.get(email).getPassword()));
+		});
+
+		assertTrue(tokenGenerationService.currentGeneration(userId) > before);
+		assertTrue(passwordHashingService.matches("new-password", userCredentialCache.get(email).getPassword()));
+	}
+
+	@Test
+	void rolledBackPasswordChangeRevokesNothing() throws Exception {
+		String email = "admin-rollback-" + UUID.randomUUID() + "@example.com";
+		String userId = adminUserService.createUser(createRequest(email, "old-password")).getId();
+		long before = tokenGenerationService.currentGeneration(userId);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			update(userId, "new-password");
+			status.setRollbackOnly();
+		});
+
+		assertEquals(before, tokenGenerationService.currentGeneration(userId));
+		assertTrue(passwordHashingService.matches("old-password", userCredentialCache.get(email).getPassword()));
+	}
+
+	private static CreateUserRequest createRequest(String email, String password) {
+		CreateUserRequest request = new CreateUserRequest();
+		request.setDisplayName("Admin Test");
+		request.setEmail(email);
+		request.setPassword(password);
+		return request;
+	}
+
+	private boolean matches(String rawPassword, String encodedPassword) {
+		try {
+			return passwordHashingService.matches(rawPassword, encodedPassword);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void update(String userId, String password) {
+		UpdateUserRequest request = new UpdateUserRequest();
+		request.setPassword(password);
+		try {
+			adminUserService.updateUser(userId, request);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
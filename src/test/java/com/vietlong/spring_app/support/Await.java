@@ -0,0 +1,33 @@
+package com.vietlong.spring_app.support;
+
+import java.util.function.BooleanSupplier;
+
+public final class Await {
+
+	private static final long TIMEOUT_MILLIS = 10_000L;
+	private static final long POLL_MILLIS = 50L;
+
+	private Await() {
+	}
+
+	public static boolean until(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (System.currentTimeMillis() < deadline) {
+			if (condition.getAsBoolean()) {
+				return true;
+			}
+			Thread.sleep(POLL_MILLIS);
+		}
+		return condition.getAsBoolean();
+	}
+
+	public static void assertEventually(BooleanSupplier condition) throws InterruptedException {
+		assertEventually(condition, "Condition not met within " + TIMEOUT_MILLIS / 1000 + "s");
+	}
+
+	public static void assertEventually(BooleanSupplier condition, String message) throws InterruptedException {
+		if (!until(condition)) {
+			throw new AssertionError(message);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.vietlong.spring_app.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.vietlong.spring_app.SpringAppApplication;
+
+public final class TestNodes {
+
+	private TestNodes() {
+	}
+
+	public static ConfigurableApplicationContext start(String database, String... properties) {
+		List<String> all = new ArrayList<>(List.of(
+				"server.port=0",
+				"spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=MySQL"));
+		all.addAll(List.of(properties));
+		return new SpringApplicationBuilder(SpringAppApplication.class)
+				.profiles("test")
+				.properties(all.toArray(String[]::new))
+				.run();
+	}
+}